@@ -9,8 +9,13 @@ drop table if exists roles CASCADE;
 drop table if exists galeries CASCADE;
 drop table if exists image_product CASCADE;
 drop table if exists products CASCADE;
+drop sequence if exists product_id_seq;
 drop table if exists coupons CASCADE;
 drop table if exists categories CASCADE;
+drop table if exists mail_outbox CASCADE;
+drop table if exists daily_revenue CASCADE;
+drop table if exists daily_product_sales CASCADE;
+drop table if exists daily_category_sales CASCADE;
 
 create table roles(
 	id varchar(50) primary key,
@@ -41,6 +46,20 @@ create table users(
 insert into users(id, user_name, password, image, full_name, phone_number, email, date_of_birth, address, role_id, deleted, created_at, created_by, updated_at, updated_by)
 values('7a7d6b6f-6e5e-4f6e-6b6f-6e5e4f6e6b6f','admin','$2a$10$scgDu9hjfhBkAbUhb5Mi.uc5Z0Ki1UY6/663KX5jy9rcgFu5mY01e','https://cdn-icons-png.flaticon.com/512/149/149071.png','Admin','0123456789','admin@gmail.com','2000-01-01','Admin','ADMIN', false, now(), 'System', now(), 'System');
 
+create table tokens(
+	token varchar(255) primary key,
+	token_type varchar(50),
+	expiration_date timestamp,
+	expired bool default false,
+	revoked bool default false,
+	revoked_at timestamp,
+	user_id uuid references users(id),
+	created_at timestamp
+);
+
+create index idx_tokens_user_id on tokens(user_id);
+create index idx_tokens_revoked_at on tokens(revoked_at) where revoked;
+
 create table categories(
 	id uuid primary key,
 	name varchar(100),
@@ -50,6 +69,9 @@ create table categories(
   	updated_by varchar(100)
 );
 
+-- ProductIdGenerator cấp id PRODUCT-n theo từng khối 50 số
+create sequence product_id_seq increment by 50;
+
 create table products(
 	id varchar(100) primary key,
 	category_id uuid references categories(id),
@@ -60,6 +82,7 @@ create table products(
 	description text,
 	deleted bool,
     quantity int,
+	sold_quantity int not null default 0,
 	classify varchar(100),
 	created_at timestamp,
 	created_by varchar(100),
@@ -71,6 +94,7 @@ create table galeries(
 	id uuid primary key,
 	product_id varchar(100) references products(id),
 	image text,
+	variants jsonb,
 	created_at timestamp,
 	created_by varchar(100),
   	updated_at timestamp,
@@ -137,6 +161,7 @@ create table image_product(
 	image_name varchar(100),
 	product_id varchar(100) references products(id) on delete cascade,
 	url text,
+	variants jsonb,
 	created_at timestamp,
 	created_by varchar(100),
   	updated_at timestamp,
@@ -166,6 +191,46 @@ create table carts(
   	updated_by varchar(100)
 );
 
+create table mail_outbox(
+	id uuid primary key,
+	type varchar(50) not null,
+	order_id uuid not null,
+	dedup_key varchar(150) not null unique,
+	status varchar(20) not null,
+	attempts int not null default 0,
+	next_attempt_at timestamp not null,
+	sent_at timestamp,
+	last_error varchar(500),
+	created_at timestamp,
+	created_by varchar(100),
+  	updated_at timestamp,
+  	updated_by varchar(100)
+);
+
+create index idx_mail_outbox_status_next_attempt on mail_outbox(status, next_attempt_at);
+
+create table daily_revenue(
+	day date primary key,
+	total_money double precision not null,
+	order_count bigint not null
+);
+
+create table daily_product_sales(
+	day date not null,
+	product_id varchar(100) not null,
+	quantity bigint not null,
+	revenue double precision not null,
+	primary key (day, product_id)
+);
+
+create table daily_category_sales(
+	day date not null,
+	category_id uuid not null,
+	quantity bigint not null,
+	revenue double precision not null,
+	primary key (day, category_id)
+);
+
 -- tạo role đúng tên
 CREATE ROLE chatbot_read_only LOGIN PASSWORD 'postgres';
 
@@ -196,3 +261,8 @@ GROUP BY f.product_id;
 GRANT SELECT ON public.v_feedback_stats TO chatbot_read_only;
 
 CREATE INDEX IF NOT EXISTS idx_feedbacks_product_id ON public.feedbacks (product_id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON public.orders (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created_at_id ON public.notifications (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_feedbacks_product_created_at_id ON public.feedbacks (product_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON public.products (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created_at ON public.notifications (user_id, read, created_at);
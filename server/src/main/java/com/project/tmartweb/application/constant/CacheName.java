@@ -0,0 +1,10 @@
+package com.project.tmartweb.application.constant;
+
+public class CacheName {
+    public static final String PRODUCT = "product";
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String COUPONS = "coupons";
+    public static final String REVENUE_PERIODS = "revenue-periods";
+    public static final String PRINCIPALS = "principals";
+}
@@ -2,6 +2,22 @@ package com.project.tmartweb.application.repositories;
 
 import com.project.tmartweb.domain.entities.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
 
 public interface CouponRepository extends JpaRepository<Coupon, String> {
+    // Trừ 1 lượt sử dụng nếu mã còn lượt và còn hạn, trả về 0 nếu không trừ được
+    @Modifying
+    @Query("update Coupon c set c.quantity = c.quantity - 1 " +
+            "where c.code = :code and c.quantity > 0 and c.expired = false " +
+            "and (c.expirationDate is null or c.expirationDate > :now)")
+    int redeem(@Param("code") String code, @Param("now") Timestamp now);
+
+    @Modifying
+    @Query("update Coupon c set c.expired = true " +
+            "where c.expired = false and c.expirationDate < :now")
+    int expireAll(@Param("now") Timestamp now);
 }
@@ -0,0 +1,66 @@
+package com.project.tmartweb.application.repositories;
+
+import com.project.tmartweb.application.responses.CategorySalesStatistical;
+import com.project.tmartweb.domain.entities.DailyCategorySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyCategorySalesRepository extends JpaRepository<DailyCategorySales, DailyCategorySales.Key> {
+    @Query("""
+        SELECT NEW com.project.tmartweb.application.responses.CategorySalesStatistical(
+            c.id,
+            c.name,
+            SUM(s.quantity),
+            SUM(s.revenue)
+        )
+        FROM DailyCategorySales s
+        JOIN Category c ON c.id = s.categoryId
+        WHERE (CAST(:startDate AS date) IS NULL OR s.day >= :startDate)
+          AND (CAST(:endDate AS date) IS NULL OR s.day <= :endDate)
+        GROUP BY c.id, c.name
+        HAVING SUM(s.quantity) <> 0
+        ORDER BY SUM(s.quantity) DESC
+    """)
+    List<CategorySalesStatistical> statisticalByCategory(@Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+
+    // Danh mục lấy theo sản phẩm tại thời điểm cập nhật, job rebuild hằng đêm sửa lại nếu sản phẩm đổi danh mục
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_category_sales (day, category_id, quantity, revenue)
+        SELECT CAST(o.created_at AS date), p.category_id, :sign * SUM(od.quantity), :sign * SUM(od.total_money)
+        FROM order_detail od
+        JOIN orders o ON o.id = od.order_id
+        JOIN products p ON p.id = od.product_id
+        WHERE o.id = :orderId AND p.category_id IS NOT NULL
+        GROUP BY CAST(o.created_at AS date), p.category_id
+        ON CONFLICT (day, category_id) DO UPDATE SET
+            quantity = daily_category_sales.quantity + EXCLUDED.quantity,
+            revenue = daily_category_sales.revenue + EXCLUDED.revenue
+    """, nativeQuery = true)
+    int addOrder(@Param("orderId") UUID orderId, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_category_sales", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_category_sales (day, category_id, quantity, revenue)
+        SELECT CAST(o.created_at AS date), p.category_id, SUM(od.quantity), SUM(od.total_money)
+        FROM order_detail od
+        JOIN orders o ON o.id = od.order_id
+        JOIN products p ON p.id = od.product_id
+        WHERE o.status = 'SHIPPED' AND p.category_id IS NOT NULL
+        GROUP BY CAST(o.created_at AS date), p.category_id
+    """, nativeQuery = true)
+    int rebuild();
+}
@@ -0,0 +1,63 @@
+package com.project.tmartweb.application.repositories;
+
+import com.project.tmartweb.application.responses.ProductSalesStatistical;
+import com.project.tmartweb.domain.entities.DailyProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+    @Query("""
+        SELECT NEW com.project.tmartweb.application.responses.ProductSalesStatistical(
+            p.id,
+            p.title,
+            SUM(s.quantity),
+            SUM(s.revenue)
+        )
+        FROM DailyProductSales s
+        JOIN Product p ON p.id = s.productId
+        WHERE (CAST(:startDate AS date) IS NULL OR s.day >= :startDate)
+          AND (CAST(:endDate AS date) IS NULL OR s.day <= :endDate)
+        GROUP BY p.id, p.title
+        HAVING SUM(s.quantity) <> 0
+        ORDER BY SUM(s.quantity) DESC
+    """)
+    List<ProductSalesStatistical> statisticalByProduct(@Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_product_sales (day, product_id, quantity, revenue)
+        SELECT CAST(o.created_at AS date), od.product_id, :sign * SUM(od.quantity), :sign * SUM(od.total_money)
+        FROM order_detail od
+        JOIN orders o ON o.id = od.order_id
+        WHERE o.id = :orderId
+        GROUP BY CAST(o.created_at AS date), od.product_id
+        ON CONFLICT (day, product_id) DO UPDATE SET
+            quantity = daily_product_sales.quantity + EXCLUDED.quantity,
+            revenue = daily_product_sales.revenue + EXCLUDED.revenue
+    """, nativeQuery = true)
+    int addOrder(@Param("orderId") UUID orderId, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_product_sales", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_product_sales (day, product_id, quantity, revenue)
+        SELECT CAST(o.created_at AS date), od.product_id, SUM(od.quantity), SUM(od.total_money)
+        FROM order_detail od
+        JOIN orders o ON o.id = od.order_id
+        WHERE o.status = 'SHIPPED'
+        GROUP BY CAST(o.created_at AS date), od.product_id
+    """, nativeQuery = true)
+    int rebuild();
+}
@@ -0,0 +1,49 @@
+package com.project.tmartweb.application.repositories;
+
+import com.project.tmartweb.application.responses.RevenueSummary;
+import com.project.tmartweb.domain.entities.DailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, LocalDate> {
+    @Query("select d from DailyRevenue d " +
+            "where (cast(:startDate as date) is null or d.day >= :startDate) " +
+            "and (cast(:endDate as date) is null or d.day <= :endDate) " +
+            "and d.orderCount > 0 " +
+            "order by d.day")
+    List<DailyRevenue> findAllInRange(@Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    @Query("select new com.project.tmartweb.application.responses.RevenueSummary(" +
+            "coalesce(sum(d.totalMoney), 0.0), coalesce(sum(d.orderCount), 0L)) " +
+            "from DailyRevenue d where d.day >= :startDate and d.day <= :endDate")
+    RevenueSummary summarize(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Cộng (sign = 1) hoặc trừ (sign = -1) một đơn hàng vào dòng của ngày tạo đơn
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue (day, total_money, order_count) " +
+            "SELECT CAST(o.created_at AS date), :sign * o.total_money, :sign FROM orders o WHERE o.id = :orderId " +
+            "ON CONFLICT (day) DO UPDATE SET " +
+            "total_money = daily_revenue.total_money + EXCLUDED.total_money, " +
+            "order_count = daily_revenue.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int addOrder(@Param("orderId") UUID orderId, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_revenue", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue (day, total_money, order_count) " +
+            "SELECT CAST(o.created_at AS date), SUM(o.total_money), COUNT(*) FROM orders o " +
+            "WHERE o.status = 'SHIPPED' " +
+            "GROUP BY CAST(o.created_at AS date)", nativeQuery = true)
+    int rebuild();
+}
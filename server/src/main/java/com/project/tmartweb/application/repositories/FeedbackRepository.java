@@ -5,8 +5,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +25,29 @@ public interface FeedbackRepository extends JpaRepository<Feedback, UUID> {
             "(f.star = :star or :star is null)" +
             "order by f.createdAt desc")
     List<Feedback> findAllByProductId(String id, Integer star);
+
+    @Query("select f from Feedback f " +
+            "where f.product.id = :id and " +
+            "(f.star = :star or :star is null) " +
+            "order by f.createdAt desc, f.id desc")
+    List<Feedback> findAllByProductIdFirstPage(@Param("id") String id,
+                                               @Param("star") Integer star,
+                                               Pageable pageable);
+
+    // So sánh theo bộ (created_at, id) để Postgres seek thẳng trên index thay vì lọc bằng OR
+    @Query("select f from Feedback f " +
+            "where f.product.id = :id and " +
+            "(f.star = :star or :star is null) " +
+            "and (f.createdAt, f.id) < (:cursorCreatedAt, :cursorId) " +
+            "order by f.createdAt desc, f.id desc")
+    List<Feedback> findAllByProductIdAfter(@Param("id") String id,
+                                           @Param("star") Integer star,
+                                           @Param("cursorCreatedAt") Timestamp cursorCreatedAt,
+                                           @Param("cursorId") UUID cursorId,
+                                           Pageable pageable);
+
+    @Query("select count(f) from Feedback f " +
+            "where f.product.id = :id and " +
+            "(f.star = :star or :star is null)")
+    long countByProductId(@Param("id") String id, @Param("star") Integer star);
 }
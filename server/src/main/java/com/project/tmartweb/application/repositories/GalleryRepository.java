@@ -2,10 +2,24 @@ package com.project.tmartweb.application.repositories;
 
 import com.project.tmartweb.domain.entities.Gallery;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Repository
 public interface GalleryRepository extends JpaRepository<Gallery, UUID> {
+    @Query("select g.id from Gallery g where g.variants is null")
+    List<UUID> findIdsWithoutVariants();
+
+    // Chỉ ghi variants khi ảnh gốc chưa bị thay trong lúc đang resize
+    @Modifying
+    @Query("update Gallery g set g.variants = :variants where g.id = :id and g.image = :sourceUrl")
+    int updateVariants(@Param("id") UUID id,
+                       @Param("sourceUrl") String sourceUrl,
+                       @Param("variants") Map<String, String> variants);
 }
@@ -2,12 +2,26 @@ package com.project.tmartweb.application.repositories;
 
 import com.project.tmartweb.domain.entities.ImageProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Repository
 public interface ImageProductRepository extends JpaRepository<ImageProduct, UUID> {
     List<ImageProduct> findByProductId(String productId);
+
+    @Query("select i.id from ImageProduct i where i.variants is null")
+    List<UUID> findIdsWithoutVariants();
+
+    // Chỉ ghi variants khi ảnh gốc chưa bị thay trong lúc đang resize
+    @Modifying
+    @Query("update ImageProduct i set i.variants = :variants where i.id = :id and i.url = :sourceUrl")
+    int updateVariants(@Param("id") UUID id,
+                       @Param("sourceUrl") String sourceUrl,
+                       @Param("variants") Map<String, String> variants);
 }
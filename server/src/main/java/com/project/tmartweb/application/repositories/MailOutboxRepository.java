@@ -0,0 +1,32 @@
+package com.project.tmartweb.application.repositories;
+
+import com.project.tmartweb.domain.entities.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    // Bỏ qua nếu sự kiện đã có trong outbox (trùng dedup_key), không làm hỏng transaction của đơn hàng
+    @Modifying
+    @Query(value = "INSERT INTO mail_outbox (id, type, order_id, dedup_key, status, attempts, " +
+            "next_attempt_at, created_at) " +
+            "VALUES (:id, :type, :orderId, :dedupKey, 'PENDING', 0, now(), now()) " +
+            "ON CONFLICT (dedup_key) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("id") UUID id,
+                @Param("type") String type,
+                @Param("orderId") UUID orderId,
+                @Param("dedupKey") String dedupKey);
+
+    // SKIP LOCKED: nhiều instance cùng chạy dispatcher không lấy trùng email
+    @Query(value = "SELECT * FROM mail_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= now() " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutbox> lockDue(@Param("limit") int limit);
+}
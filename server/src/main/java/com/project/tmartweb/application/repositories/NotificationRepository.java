@@ -5,8 +5,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,5 +20,29 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
 
     List<Notification> findAllByUserId(UUID userId);
 
+    @Query("select n from Notification n " +
+            "where n.user.id = :userId " +
+            "order by n.createdAt desc, n.id desc")
+    List<Notification> findAllByUserIdFirstPage(@Param("userId") UUID userId, Pageable pageable);
+
+    // So sánh theo bộ (created_at, id) để Postgres seek thẳng trên index thay vì lọc bằng OR
+    @Query("select n from Notification n " +
+            "where n.user.id = :userId " +
+            "and (n.createdAt, n.id) < (:cursorCreatedAt, :cursorId) " +
+            "order by n.createdAt desc, n.id desc")
+    List<Notification> findAllByUserIdAfter(@Param("userId") UUID userId,
+                                            @Param("cursorCreatedAt") Timestamp cursorCreatedAt,
+                                            @Param("cursorId") UUID cursorId,
+                                            Pageable pageable);
+
+    long countByUserId(UUID userId);
+
+    long countByUserIdAndRead(UUID userId, boolean read);
+
+    @Modifying
+    @Query("update Notification n set n.read = true " +
+            "where n.user.id = :userId and n.read = false")
+    int readAllByUserId(@Param("userId") UUID userId);
+
     List<Notification> findAllByUserIdAndRead(UUID userId, boolean read, Sort sort);
 }
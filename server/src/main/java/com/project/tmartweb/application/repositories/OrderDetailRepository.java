@@ -22,6 +22,9 @@ public interface OrderDetailRepository extends JpaRepository<OrderDetail, UUID>
 
     List<OrderDetail> findAllByOrderId(UUID orderId);
 
+    @Query("select od from OrderDetail od join fetch od.order join fetch od.product where od.order.id in :orderIds")
+    List<OrderDetail> findAllWithProductByOrderIdIn(@Param("orderIds") List<UUID> orderIds);
+
     List<OrderDetail> findAllByProduct(Product product);
 
     // ✅ Thống kê sản phẩm bán được trong khoảng thời gian (chỉ tính đơn hàng đã giao)
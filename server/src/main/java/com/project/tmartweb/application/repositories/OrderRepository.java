@@ -49,6 +49,41 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
                                 @Param("status") OrderStatus status,
                                 Pageable pageable);
 
+    @Query("select o from Order o " +
+            "where (cast(:startDate as timestamp) is null or " +
+            "cast(:endDate as timestamp) is null or " +
+            "(o.createdAt >= :startDate and o.createdAt <= :endDate)) " +
+            "and (:status is null or o.status = :status) " +
+            "order by o.createdAt desc, o.id desc")
+    List<Order> findAllByFilterFirstPage(@Param("startDate") Timestamp startDate,
+                                         @Param("endDate") Timestamp endDate,
+                                         @Param("status") OrderStatus status,
+                                         Pageable pageable);
+
+    // So sánh theo bộ (created_at, id) để Postgres seek thẳng trên index thay vì lọc bằng OR
+    @Query("select o from Order o " +
+            "where (cast(:startDate as timestamp) is null or " +
+            "cast(:endDate as timestamp) is null or " +
+            "(o.createdAt >= :startDate and o.createdAt <= :endDate)) " +
+            "and (:status is null or o.status = :status) " +
+            "and (o.createdAt, o.id) < (:cursorCreatedAt, :cursorId) " +
+            "order by o.createdAt desc, o.id desc")
+    List<Order> findAllByFilterAfter(@Param("startDate") Timestamp startDate,
+                                     @Param("endDate") Timestamp endDate,
+                                     @Param("status") OrderStatus status,
+                                     @Param("cursorCreatedAt") Timestamp cursorCreatedAt,
+                                     @Param("cursorId") UUID cursorId,
+                                     Pageable pageable);
+
+    @Query("select count(o) from Order o " +
+            "where (cast(:startDate as timestamp) is null or " +
+            "cast(:endDate as timestamp) is null or " +
+            "(o.createdAt >= :startDate and o.createdAt <= :endDate)) " +
+            "and (:status is null or o.status = :status)")
+    long countByFilter(@Param("startDate") Timestamp startDate,
+                       @Param("endDate") Timestamp endDate,
+                       @Param("status") OrderStatus status);
+
 
     ;
 }
\ No newline at end of file
@@ -7,10 +7,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +27,28 @@ public interface ProductRepository extends JpaRepository<Product, String> {
 
     List<Product> findAllByDeleted(boolean deleted, Sort sort);
 
+    @Query("""
+        SELECT p
+        FROM Product p
+        WHERE p.deleted = false
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<Product> findAllActiveFirstPage(Pageable pageable);
+
+    // So sánh theo bộ (created_at, id) để Postgres seek thẳng trên index thay vì lọc bằng OR
+    @Query("""
+        SELECT p
+        FROM Product p
+        WHERE p.deleted = false
+          AND (p.createdAt, p.id) < (:cursorCreatedAt, :cursorId)
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<Product> findAllActiveAfter(@Param("cursorCreatedAt") Timestamp cursorCreatedAt,
+                                     @Param("cursorId") String cursorId,
+                                     Pageable pageable);
+
+    long countByDeleted(boolean deleted);
+
     List<Product> findAllByCategory_Id(UUID id);
 
     @Query("""
@@ -79,19 +103,46 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     """)
     Page<Product> findAllByDiscount(Pageable pageable);
 
-    // ✅ FIXED: Truy vấn Best Seller chính xác (lọc theo đơn hàng đã giao)
+    // ✅ FIXED: Truy vấn Best Seller chính xác (đọc cột sold_quantity, chỉ tính đơn hàng đã giao)
     @Query("""
-        SELECT pr 
-        FROM Product pr 
-        INNER JOIN OrderDetail od ON pr.id = od.product.id 
-        INNER JOIN Order o ON od.order.id = o.id 
-        WHERE pr.deleted = false 
-          AND o.status = com.project.tmartweb.domain.enums.OrderStatus.SHIPPED 
-        GROUP BY pr.id 
-        ORDER BY SUM(od.quantity) DESC
+        SELECT p 
+        FROM Product p 
+        WHERE p.deleted = false 
+          AND p.soldQuantity > 0 
+        ORDER BY p.soldQuantity DESC
     """)
     Page<Product> findAllBestSeller(Pageable pageable);
 
+    @Modifying
+    @Query("UPDATE Product p SET p.soldQuantity = p.soldQuantity + :quantity WHERE p.id = :id")
+    int addSoldQuantity(@Param("id") String id, @Param("quantity") int quantity);
+
+    // Chỉ ghi cột deleted, không ghi đè quantity / sold_quantity đang được cập nhật đồng thời
+    @Modifying
+    @Query("UPDATE Product p SET p.deleted = true WHERE p.id = :id")
+    int markDeleted(@Param("id") String id);
+
+    // Tính lại sold_quantity từ order_detail, chỉ ghi những sản phẩm bị lệch
+    @Modifying
+    @Query("""
+        UPDATE Product p 
+        SET p.soldQuantity = COALESCE((
+            SELECT CAST(SUM(od.quantity) AS integer) 
+            FROM OrderDetail od 
+            JOIN od.order o 
+            WHERE od.product.id = p.id 
+              AND o.status = com.project.tmartweb.domain.enums.OrderStatus.SHIPPED
+        ), 0) 
+        WHERE p.soldQuantity <> COALESCE((
+            SELECT CAST(SUM(od.quantity) AS integer) 
+            FROM OrderDetail od 
+            JOIN od.order o 
+            WHERE od.product.id = p.id 
+              AND o.status = com.project.tmartweb.domain.enums.OrderStatus.SHIPPED
+        ), 0)
+    """)
+    int reconcileSoldQuantities();
+
     // 💡 Bản mở rộng (tùy chọn, dễ bảo trì hơn)
     // @Query("""
     //     SELECT pr
@@ -1,9 +1,28 @@
 package com.project.tmartweb.application.repositories;
 
+import com.project.tmartweb.application.responses.RevokedToken;
 import com.project.tmartweb.domain.entities.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface TokenRepository extends JpaRepository<Token, String> {
+    @Query("select new com.project.tmartweb.application.responses.RevokedToken(t.token, t.expirationDate, t.revokedAt) " +
+            "from Token t where t.revoked = true and t.revokedAt > :since and t.expirationDate > :now " +
+            "order by t.revokedAt")
+    List<RevokedToken> findRevokedSince(@Param("since") Timestamp since, @Param("now") Timestamp now);
+
+    @Query("select t from Token t where t.user.id = :userId and t.revoked = false and t.expirationDate > :now")
+    List<Token> findAllActiveByUserId(@Param("userId") UUID userId, @Param("now") Timestamp now);
+
+    @Modifying
+    @Query("delete from Token t where t.expirationDate < :now")
+    int deleteExpired(@Param("now") Timestamp now);
 }
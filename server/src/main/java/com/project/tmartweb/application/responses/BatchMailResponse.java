@@ -0,0 +1,18 @@
+package com.project.tmartweb.application.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BatchMailResponse {
+    private int sent;
+
+    private List<String> failed;
+}
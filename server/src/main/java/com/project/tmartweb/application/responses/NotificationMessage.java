@@ -0,0 +1,27 @@
+package com.project.tmartweb.application.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class NotificationMessage {
+    private UUID id;
+
+    private String title;
+
+    private String content;
+
+    private Boolean read;
+
+    private UUID orderId;
+
+    private Timestamp createdAt;
+}
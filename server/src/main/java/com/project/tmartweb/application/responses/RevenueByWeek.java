@@ -14,4 +14,6 @@ public class RevenueByWeek {
     private Integer year;
     private Integer week;
     private Double totalMoney;
+    private Long orderCount;
+    private Double averageBasket;
 }
\ No newline at end of file
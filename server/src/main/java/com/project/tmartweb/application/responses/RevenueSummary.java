@@ -0,0 +1,15 @@
+package com.project.tmartweb.application.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevenueSummary {
+    private Double totalMoney;
+    private Long orderCount;
+}
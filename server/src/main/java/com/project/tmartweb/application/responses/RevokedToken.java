@@ -0,0 +1,18 @@
+package com.project.tmartweb.application.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevokedToken {
+    private String token;
+    private Timestamp expirationDate;
+    private Timestamp revokedAt;
+}
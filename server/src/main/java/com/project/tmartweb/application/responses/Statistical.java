@@ -13,4 +13,6 @@ public class Statistical {
     private Integer month;
     private Integer year;
     private Double totalMoney;
+    private Long orderCount;
+    private Double averageBasket;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.project.tmartweb.application.services.category;
 
+import com.project.tmartweb.application.constant.CacheName;
 import com.project.tmartweb.application.repositories.CategoryRepository;
 import com.project.tmartweb.application.repositories.ProductRepository;
 import com.project.tmartweb.config.exceptions.ConflictException;
@@ -12,6 +13,9 @@ import com.project.tmartweb.domain.paginate.BasePagination;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -27,6 +31,7 @@ public class CategoryService implements ICategoryService {
     private final ModelMapper mapper;
 
     @Override
+    @CacheEvict(cacheNames = CacheName.CATEGORIES, allEntries = true)
     public Category insert(CategoryDTO categoryDTO) {
         if (categoryRepository.existsByName(categoryDTO.getName())) {
             throw new ConflictException("Category name already exists");
@@ -36,6 +41,11 @@ public class CategoryService implements ICategoryService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheName.CATEGORIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheName.PRODUCT, allEntries = true),
+            @CacheEvict(cacheNames = CacheName.PRODUCTS, allEntries = true)
+    })
     public Category update(UUID id, CategoryDTO categoryDTO) {
         Category category = getById(id);
         mapper.map(categoryDTO, category);
@@ -43,6 +53,7 @@ public class CategoryService implements ICategoryService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheName.CATEGORIES, allEntries = true)
     public void delete(Category category) {
         List<Product> products = productRepository.findAllByCategory_Id(category.getId());
         if (!products.isEmpty()) {
@@ -52,6 +63,7 @@ public class CategoryService implements ICategoryService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheName.CATEGORIES, key = "#page + ':' + #perPage")
     public PaginationDTO<Category> getAll(Integer page, Integer perPage) {
         if (page == null && perPage == null) {
             return new PaginationDTO<>(categoryRepository.findAll(
@@ -0,0 +1,48 @@
+package com.project.tmartweb.application.services.coupon;
+
+import com.project.tmartweb.application.repositories.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+/**
+ * Đánh dấu expired cho các mã giảm giá đã quá hạn bằng một câu lệnh UPDATE.
+ * Các API đọc không cần ghi nữa vì Coupon.getExpired() tự tính theo expirationDate.
+ */
+@Component
+@Log4j2
+public class CouponExpiryJob {
+    private final CouponRepository couponRepository;
+    private final Timer sweepTimer;
+    private final Counter expiredCounter;
+
+    public CouponExpiryJob(CouponRepository couponRepository, MeterRegistry meterRegistry) {
+        this.couponRepository = couponRepository;
+        this.sweepTimer = Timer.builder("coupon.expiry.sweep")
+                .description("Thời gian chạy một lần quét mã giảm giá hết hạn")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("coupon.expiry.expired")
+                .description("Số mã giảm giá được đánh dấu hết hạn")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${coupon.expiry-sweep-cron}")
+    @Transactional
+    public void sweep() {
+        int expired = sweepTimer.record(
+                () -> couponRepository.expireAll(new Timestamp(System.currentTimeMillis())));
+        expiredCounter.increment(expired);
+        if (expired > 0) {
+            log.info("Expired {} coupons", expired);
+        }
+    }
+}
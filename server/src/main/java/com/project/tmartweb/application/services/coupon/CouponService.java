@@ -1,5 +1,6 @@
 package com.project.tmartweb.application.services.coupon;
 
+import com.project.tmartweb.application.constant.CacheName;
 import com.project.tmartweb.application.repositories.CouponRepository;
 import com.project.tmartweb.config.exceptions.InvalidParamException;
 import com.project.tmartweb.config.exceptions.NotFoundException;
@@ -9,10 +10,12 @@ import com.project.tmartweb.domain.paginate.BasePagination;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -20,23 +23,29 @@ import java.util.Optional;
 public class CouponService implements ICouponService {
     private final CouponRepository couponRepository;
     private final ModelMapper mapper;
+    private final CacheManager cacheManager;
 
     @Override
     public Coupon insert(CouponDTO couponDTO) {
         Coupon coupon = mapper.map(couponDTO, Coupon.class);
-        return couponRepository.save(coupon);
+        Coupon saved = couponRepository.save(coupon);
+        evict(saved.getCode());
+        return saved;
     }
 
     @Override
     public Coupon update(String id, CouponDTO couponDTO) {
         Coupon coupon = getById(id);
         mapper.map(couponDTO, coupon);
-        return couponRepository.save(coupon);
+        Coupon saved = couponRepository.save(coupon);
+        evict(saved.getCode());
+        return saved;
     }
 
     @Override
     public void delete(Coupon coupon) {
         couponRepository.delete(coupon);
+        evict(coupon.getCode());
     }
 
     @Override
@@ -45,16 +54,6 @@ public class CouponService implements ICouponService {
             return new PaginationDTO<>(couponRepository.findAll(), null);
         }
         BasePagination<Coupon, CouponRepository> basePagination = new BasePagination<>(couponRepository);
-        PaginationDTO<Coupon> couponPaginationDTO = basePagination.paginate(page, perPage);
-        List<Coupon> couponData = couponPaginationDTO.getData();
-        for (Coupon coupon : couponData) {
-            Timestamp timeNow = new Timestamp(System.currentTimeMillis());
-            if (coupon.getExpirationDate().before(timeNow)) {
-                coupon.setExpired(true);
-                couponRepository.save(coupon);
-            }
-        }
-
         return basePagination.paginate(page, perPage);
     }
 
@@ -69,21 +68,56 @@ public class CouponService implements ICouponService {
                                                                                   "Coupon not found"));
     }
 
+    /**
+     * Kiểm tra mã giảm giá từ cache, không ghi vào database.
+     * Số lượt còn lại có thể cũ tối đa bằng thời gian sống của cache, redeemCoupon mới là bước quyết định.
+     */
     @Override
     public Coupon useCoupon(String code) {
-        Coupon coupon = getById(code);
-        if (coupon.getExpired()) {
-            throw new InvalidParamException("Mã giảm giá đã hết hạn!", "Coupon is expired");
+        Cache cache = cacheManager.getCache(CacheName.COUPONS);
+        String key = code.toUpperCase();
+        Coupon coupon = cache == null ? null : cache.get(key, Coupon.class);
+        if (coupon == null) {
+            coupon = getById(code);
+            if (cache != null) {
+                cache.put(key, coupon);
+            }
         }
-        if (coupon.getExpirationDate() != null &&
-                coupon.getExpirationDate().compareTo(new Timestamp(System.currentTimeMillis())) < 0) {
-            coupon.setExpired(true);
-            couponRepository.save(coupon);
+        validate(coupon);
+        return coupon;
+    }
+
+    /**
+     * Trừ một lượt sử dụng bằng một câu lệnh UPDATE có điều kiện, không thể dùng quá số lượt kể cả khi
+     * nhiều đơn hàng đặt cùng lúc.
+     */
+    @Override
+    @Transactional
+    public Coupon redeemCoupon(String code) {
+        String key = code.toUpperCase();
+        int redeemed = couponRepository.redeem(key, new Timestamp(System.currentTimeMillis()));
+        if (redeemed == 0) {
+            evict(key);
+            validate(getById(key));
+            throw new InvalidParamException("Mã giảm giá đã hết lượt sử dụng!", "Coupon is out of stock");
+        }
+        return getById(key);
+    }
+
+    private void validate(Coupon coupon) {
+        if (coupon.getExpired()) {
             throw new InvalidParamException("Mã giảm giá đã hết hạn!", "Coupon is expired");
         }
         if (coupon.getQuantity() == 0) {
             throw new InvalidParamException("Mã giảm giá đã hết lượt sử dụng!", "Coupon is out of stock");
         }
-        return coupon;
+    }
+
+    // evictIfPresent xóa ngay, không đợi commit: redeemCoupon thất bại sẽ rollback transaction
+    private void evict(String code) {
+        Cache cache = cacheManager.getCache(CacheName.COUPONS);
+        if (cache != null && code != null) {
+            cache.evictIfPresent(code.toUpperCase());
+        }
     }
 }
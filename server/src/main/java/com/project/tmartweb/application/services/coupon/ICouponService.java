@@ -6,4 +6,6 @@ import com.project.tmartweb.domain.entities.Coupon;
 
 public interface ICouponService extends IBaseService<Coupon, CouponDTO, String> {
     Coupon useCoupon(String code);
+
+    Coupon redeemCoupon(String code);
 }
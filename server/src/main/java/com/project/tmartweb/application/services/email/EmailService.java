@@ -1,9 +1,17 @@
 package com.project.tmartweb.application.services.email;
 
+import com.project.tmartweb.application.responses.BatchMailResponse;
+import com.project.tmartweb.domain.dtos.MailRecipientDTO;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -12,6 +20,10 @@ import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -22,18 +34,15 @@ public class EmailService implements IEmailService {
     @Value("${mail.username}")
     private String username;
 
+    @Value("${mail.batch-size}")
+    private int batchSize;
+
     private final TemplateEngine templateEngine;
 
     @Override
     public void sendEmail(String to, String subject, String content) {
         try {
-            MimeMessage message = javaMailSender.createMimeMessage();
-            MimeMessageHelper messageHelper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
-            messageHelper.setSubject(subject);
-            messageHelper.setTo(to);
-            messageHelper.setText(content, true);
-            messageHelper.setFrom(username);
-            javaMailSender.send(message);
+            javaMailSender.send(createMessage(to, subject, content));
         } catch (Exception e) {
             log.error(e.getMessage());
         }
@@ -43,11 +52,126 @@ public class EmailService implements IEmailService {
     @Async
     public void sendTemplateMail(String to, String subject, String templateName,
                                  Map<String, Object> variables) {
+        sendEmail(to, subject, render(templateName, variables));
+    }
+
+    /**
+     * Render email từ mẫu nhưng chưa gửi, để bên gọi (outbox) gửi sau khi đã đóng transaction.
+     */
+    @Override
+    public MimeMessage prepareTemplateMail(String to, String subject, String templateName,
+                                           Map<String, Object> variables) {
+        try {
+            return createMessage(to, subject, render(templateName, variables));
+        } catch (MessagingException e) {
+            throw new MailPreparationException(e);
+        }
+    }
+
+    /**
+     * Gửi đồng bộ và ném MailException khi lỗi để bên gọi (outbox) có thể thử lại.
+     */
+    @Override
+    public void deliver(MimeMessage message) {
+        javaMailSender.send(message);
+    }
+
+    /**
+     * Gửi cùng một mẫu email cho nhiều người nhận.
+     * <p>
+     * Mẫu được resolve một lần rồi lấy từ cache của TemplateEngine, mỗi người nhận chỉ render lại biến.
+     * Email được gửi theo từng lô batch-size, mỗi lô dùng chung một kết nối SMTP thay vì mở lại cho từng email.
+     * Người nhận lỗi không làm dừng cả lô mà được trả về trong danh sách failed.
+     */
+    @Override
+    public BatchMailResponse sendBatchTemplateMail(String subject, String templateName,
+                                                   Map<String, Object> variables,
+                                                   List<MailRecipientDTO> recipients) {
+        InternetAddress from = parseAddress(username);
+        List<String> failed = new ArrayList<>();
+        int sent = 0;
+        for (int start = 0; start < recipients.size(); start += batchSize) {
+            List<MailRecipientDTO> chunk = recipients.subList(start, Math.min(start + batchSize, recipients.size()));
+            Map<MimeMessage, String> messages = new IdentityHashMap<>();
+            for (MailRecipientDTO recipient : chunk) {
+                try {
+                    String content = render(templateName, merge(variables, recipient.getVariables()));
+                    messages.put(createMessage(from, recipient.getTo(), subject, content), recipient.getTo());
+                } catch (MessagingException | RuntimeException e) {
+                    log.warn("Preparing mail to {} failed: {}", recipient.getTo(), e.getMessage());
+                    failed.add(recipient.getTo());
+                }
+            }
+            sent += sendChunk(messages, failed);
+        }
+        return new BatchMailResponse(sent, failed);
+    }
+
+    private int sendChunk(Map<MimeMessage, String> messages, List<String> failed) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            return messages.size();
+        } catch (MailSendException e) {
+            // JavaMailSenderImpl vẫn gửi các email còn lại, chỉ báo lại những email bị lỗi
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                log.error("Sending mail batch failed: {}", e.getMessage());
+                failed.addAll(messages.values());
+                return 0;
+            }
+            failedMessages.forEach((message, error) -> {
+                String to = messages.get(message);
+                log.warn("Sending mail to {} failed: {}", to, error.getMessage());
+                failed.add(to);
+            });
+            return messages.size() - failedMessages.size();
+        } catch (MailException e) {
+            log.error("Sending mail batch failed: {}", e.getMessage());
+            failed.addAll(messages.values());
+            return 0;
+        }
+    }
+
+    private String render(String templateName, Map<String, Object> variables) {
         Context context = new Context();
         context.setVariables(variables);
+        return templateEngine.process(templateName, context);
+    }
 
-        String content = templateEngine.process(templateName, context);
+    private Map<String, Object> merge(Map<String, Object> shared, Map<String, Object> own) {
+        Map<String, Object> variables = new HashMap<>();
+        if (shared != null) {
+            variables.putAll(shared);
+        }
+        if (own != null) {
+            variables.putAll(own);
+        }
+        return variables;
+    }
+
+    private InternetAddress parseAddress(String address) {
+        try {
+            return new InternetAddress(address);
+        } catch (AddressException e) {
+            throw new MailPreparationException(e);
+        }
+    }
+
+    private MimeMessage createMessage(String to, String subject, String content) throws MessagingException {
+        return createMessage(parseAddress(username), to, subject, content);
+    }
 
-        sendEmail(to, subject, content);
+    private MimeMessage createMessage(InternetAddress from, String to, String subject, String content)
+            throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper messageHelper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        messageHelper.setSubject(subject);
+        messageHelper.setTo(to);
+        messageHelper.setText(content, true);
+        messageHelper.setFrom(from);
+        return message;
     }
 }
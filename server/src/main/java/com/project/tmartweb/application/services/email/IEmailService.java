@@ -1,11 +1,22 @@
 package com.project.tmartweb.application.services.email;
 
+import com.project.tmartweb.application.responses.BatchMailResponse;
+import com.project.tmartweb.domain.dtos.MailRecipientDTO;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 
+import java.util.List;
 import java.util.Map;
 
 public interface IEmailService {
     void sendEmail(String to, String subject, String email) throws MessagingException;
 
     void sendTemplateMail(String to, String subject, String templateName, Map<String, Object> variables);
+
+    MimeMessage prepareTemplateMail(String to, String subject, String templateName, Map<String, Object> variables);
+
+    void deliver(MimeMessage message);
+
+    BatchMailResponse sendBatchTemplateMail(String subject, String templateName, Map<String, Object> variables,
+                                            List<MailRecipientDTO> recipients);
 }
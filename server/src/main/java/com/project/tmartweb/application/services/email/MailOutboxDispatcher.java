@@ -0,0 +1,185 @@
+package com.project.tmartweb.application.services.email;
+
+import com.project.tmartweb.application.repositories.MailOutboxRepository;
+import com.project.tmartweb.application.services.order.IOrderService;
+import com.project.tmartweb.domain.entities.MailOutbox;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.enums.MailOutboxStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gửi các email trong outbox theo lô.
+ * <p>
+ * Mỗi lần chạy khóa một lô email đến hạn (SKIP LOCKED) và đẩy next_attempt_at ra sau một khoảng lease,
+ * nên instance khác không lấy trùng và email sẽ được gửi lại nếu instance này dừng giữa chừng.
+ * Email lỗi được thử lại với thời gian chờ tăng dần, quá max-attempts thì chuyển sang FAILED.
+ * <p>
+ * Lô email chạy trên thread riêng vì throttle phải chờ giữa các lần gửi, tránh chiếm thread scheduler chung
+ * của các job khác. Nội dung email được render trong transaction chỉ đọc, còn lệnh gửi SMTP chạy sau khi
+ * transaction đã đóng để không giữ kết nối database trong lúc chờ mail server.
+ */
+@Component
+@Log4j2
+public class MailOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final long MAX_BACKOFF_MILLIS = 3_600_000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final IOrderService orderService;
+    private final IEmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("MailOutbox-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${mail.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.retry-backoff}")
+    private long retryBackoff;
+
+    @Value("${mail.outbox.lease}")
+    private long lease;
+
+    @Value("${mail.outbox.rate-per-second}")
+    private int ratePerSecond;
+
+    private long lastSentAt;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                IOrderService orderService,
+                                IEmailService emailService,
+                                PlatformTransactionManager transactionManager) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.orderService = orderService;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval}")
+    public void poll() {
+        // Bỏ qua lượt này nếu lô trước vẫn đang gửi
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    dispatch();
+                } catch (RuntimeException e) {
+                    log.error("Dispatching mail outbox failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public void dispatch() {
+        List<UUID> mailIds = transactionTemplate.execute(status -> claim());
+        if (mailIds == null) {
+            return;
+        }
+        for (UUID mailId : mailIds) {
+            throttle();
+            send(mailId);
+        }
+    }
+
+    private List<UUID> claim() {
+        Timestamp leaseUntil = new Timestamp(System.currentTimeMillis() + lease);
+        List<UUID> mailIds = new ArrayList<>();
+        for (MailOutbox mail : mailOutboxRepository.lockDue(batchSize)) {
+            mail.setNextAttemptAt(leaseUntil);
+            mailIds.add(mail.getId());
+        }
+        return mailIds;
+    }
+
+    private void send(UUID mailId) {
+        try {
+            MimeMessage message = readOnlyTransactionTemplate.execute(status -> prepare(mailId));
+            emailService.deliver(message);
+            transactionTemplate.executeWithoutResult(status -> markSent(mailId));
+        } catch (RuntimeException e) {
+            log.warn("Sending mail {} failed: {}", mailId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> markFailed(mailId, e));
+        }
+    }
+
+    private MimeMessage prepare(UUID mailId) {
+        MailOutbox mail = mailOutboxRepository.findById(mailId).orElseThrow();
+        Order order = orderService.getById(mail.getOrderId());
+        return switch (mail.getType()) {
+            case ORDER_CREATED -> orderService.prepareMailCreateOrder(order);
+            case ORDER_SHIPPED -> orderService.prepareMailShippedOrder(order);
+        };
+    }
+
+    private void markSent(UUID mailId) {
+        MailOutbox mail = mailOutboxRepository.findById(mailId).orElseThrow();
+        mail.setStatus(MailOutboxStatus.SENT);
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setSentAt(new Timestamp(System.currentTimeMillis()));
+        mail.setLastError(null);
+    }
+
+    private void markFailed(UUID mailId, RuntimeException error) {
+        MailOutbox mail = mailOutboxRepository.findById(mailId).orElseThrow();
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        mail.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailOutboxStatus.FAILED);
+            log.error("Giving up mail {} after {} attempts", mailId, attempts);
+            return;
+        }
+        long backoff = Math.min(retryBackoff << (attempts - 1), MAX_BACKOFF_MILLIS);
+        mail.setNextAttemptAt(new Timestamp(System.currentTimeMillis() + backoff));
+    }
+
+    // Giới hạn số email gửi mỗi giây để không bị SMTP server từ chối
+    private void throttle() {
+        long interval = 1000L / ratePerSecond;
+        long wait = lastSentAt + interval - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lastSentAt = System.currentTimeMillis();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.tmartweb.application.services.email;
+
+import com.project.tmartweb.application.repositories.MailOutboxRepository;
+import com.project.tmartweb.domain.enums.MailType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+    private final MailOutboxRepository mailOutboxRepository;
+
+    /**
+     * Ghi email vào outbox trong transaction hiện tại, email chỉ được gửi nếu transaction commit.
+     * Mỗi (loại, đơn hàng) chỉ được ghi một lần.
+     */
+    @Transactional
+    public void enqueue(MailType type, UUID orderId) {
+        mailOutboxRepository.enqueue(UUID.randomUUID(), type.name(), orderId, type.name() + ":" + orderId);
+    }
+}
@@ -2,6 +2,7 @@ package com.project.tmartweb.application.services.feedback;
 
 import com.project.tmartweb.application.repositories.FeedbackRepository;
 import com.project.tmartweb.application.services.product.IProductService;
+import com.project.tmartweb.application.services.product.ProductCache;
 import com.project.tmartweb.application.services.user.IUserService;
 import com.project.tmartweb.config.exceptions.NotFoundException;
 import com.project.tmartweb.domain.dtos.FeedbackDTO;
@@ -9,6 +10,7 @@ import com.project.tmartweb.domain.entities.Feedback;
 import com.project.tmartweb.domain.entities.Product;
 import com.project.tmartweb.domain.entities.User;
 import com.project.tmartweb.domain.paginate.BasePagination;
+import com.project.tmartweb.domain.paginate.Cursor;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -27,6 +29,7 @@ public class FeedbackService implements IFeedbackService {
     private final FeedbackRepository feedbackRepository;
     private final IUserService userService;
     private final IProductService productService;
+    private final ProductCache productCache;
     private final BasePagination<Feedback, FeedbackRepository> basePagination;
     private final ModelMapper mapper;
 
@@ -37,7 +40,9 @@ public class FeedbackService implements IFeedbackService {
         Product product = productService.getById(feedbackDTO.getProductId());
         feedback.setUser(user);
         feedback.setProduct(product);
-        return feedbackRepository.save(feedback);
+        Feedback saved = feedbackRepository.save(feedback);
+        productCache.evict(List.of(product.getId()));
+        return saved;
     }
 
     @Override
@@ -48,12 +53,15 @@ public class FeedbackService implements IFeedbackService {
         Product product = productService.getById(feedbackDTO.getProductId());
         feedback.setUser(user);
         feedback.setProduct(product);
-        return feedbackRepository.save(feedback);
+        Feedback saved = feedbackRepository.save(feedback);
+        productCache.evict(List.of(product.getId()));
+        return saved;
     }
 
     @Override
     public void delete(Feedback feedback) {
         feedbackRepository.delete(feedback);
+        productCache.evict(List.of(feedback.getProduct().getId()));
     }
 
     @Override
@@ -84,6 +92,20 @@ public class FeedbackService implements IFeedbackService {
         return basePagination.paginate(page, perPage, feedbacks);
     }
 
+    @Override
+    public PaginationDTO<Feedback> getAllByProduct(String id, String cursor, Integer perPage, Integer star,
+                                                   boolean withTotal) {
+        int size = BasePagination.perPageOrDefault(perPage);
+        Cursor after = Cursor.decode(cursor);
+        List<Feedback> feedbacks = after == null
+                ? feedbackRepository.findAllByProductIdFirstPage(id, star, PageRequest.of(0, size + 1))
+                : feedbackRepository.findAllByProductIdAfter(id, star, after.getCreatedAt(), after.getUuid(),
+                PageRequest.of(0, size + 1));
+        Long total = withTotal ? feedbackRepository.countByProductId(id, star) : null;
+        return basePagination.paginate(feedbacks, size,
+                feedback -> new Cursor(feedback.getCreatedAt(), feedback.getId().toString()), total);
+    }
+
     @Override
     public List<Feedback> insertMultiple(List<FeedbackDTO> feedbackDTOS) {
         List<Feedback> feedbacks = new ArrayList<>();
@@ -11,4 +11,6 @@ import java.util.UUID;
 public interface IFeedbackService extends IBaseService<Feedback, FeedbackDTO, UUID>,
         IBaseServiceMultiple<Feedback, FeedbackDTO, UUID> {
     PaginationDTO<Feedback> getAllByProduct(String id, Integer page, Integer perPage, Integer star);
+
+    PaginationDTO<Feedback> getAllByProduct(String id, String cursor, Integer perPage, Integer star, boolean withTotal);
 }
@@ -0,0 +1,304 @@
+package com.project.tmartweb.application.services.file;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.project.tmartweb.config.exceptions.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache các file tải từ S3 trên ổ đĩa cục bộ, xóa theo LRU khi tổng dung lượng vượt max-size.
+ * <p>
+ * File được stream thẳng từ S3 xuống đĩa, không đọc vào heap. Nhiều request cùng lúc cho một file
+ * chưa có trong cache chỉ tải từ S3 một lần. Các file *.cache còn sót trong thư mục được xóa khi khởi động
+ * vì danh sách file chỉ giữ trong bộ nhớ; file khác trong thư mục không bị đụng tới.
+ * <p>
+ * Mỗi lần tải ghi ra một file mới với tên riêng, nên tải lại không ghi đè file đang được đọc. Bên đọc giữ
+ * file bằng get và trả lại bằng release. File bị loại khỏi cache chỉ bị xóa khi không còn ai giữ và đã qua
+ * delete-delay, vì với sendfile Tomcat chỉ mở file sau khi request đã trả về.
+ */
+@Component
+@Log4j2
+public class FileCache {
+    private static final String SUFFIX = ".cache";
+
+    private final AmazonS3 amazonS3;
+    private final String bucketName;
+    private final Path directory;
+    private final long maxSize;
+    private final long deleteDelay;
+
+    // accessOrder = true: phần tử đầu là file lâu nhất chưa được đọc
+    private final LinkedHashMap<String, CachedFile> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<CachedFile>> loading = new ConcurrentHashMap<>();
+    // File đã bị loại khỏi cache, chờ purge xóa
+    private final List<CachedFile> retired = new ArrayList<>();
+    private long size;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter servedCounter;
+
+    public FileCache(AmazonS3 amazonS3,
+                     MeterRegistry meterRegistry,
+                     @Value("${cloud.aws.bucket-name}") String bucketName,
+                     @Value("${file.cache.directory}") Path directory,
+                     @Value("${file.cache.max-size}") DataSize maxSize,
+                     @Value("${file.cache.delete-delay}") long deleteDelay) throws IOException {
+        this.amazonS3 = amazonS3;
+        this.bucketName = bucketName;
+        this.directory = directory;
+        this.maxSize = maxSize.toBytes();
+        this.deleteDelay = deleteDelay;
+        Files.createDirectories(directory);
+        deleteLeftovers();
+
+        this.hitCounter = Counter.builder("file.cache.requests").tag("result", "hit")
+                .description("Số lần đọc file có sẵn trong cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("file.cache.requests").tag("result", "miss")
+                .description("Số lần phải tải file từ S3")
+                .register(meterRegistry);
+        this.servedCounter = Counter.builder("file.served.bytes")
+                .description("Số byte file đã trả về cho client")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("file.cache.hit.ratio", this, FileCache::hitRatio)
+                .description("Tỉ lệ đọc trúng cache")
+                .register(meterRegistry);
+        Gauge.builder("file.cache.size", this, FileCache::size)
+                .description("Dung lượng các file đang cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lấy file từ cache, tải từ S3 nếu chưa có. Bên gọi phải release file sau khi đọc xong.
+     */
+    public CachedFile get(String fileName) {
+        CachedFile cached = lookup(fileName);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+        CompletableFuture<CachedFile> future = new CompletableFuture<>();
+        CompletableFuture<CachedFile> running = loading.putIfAbsent(fileName, future);
+        if (running != null) {
+            hitCounter.increment();
+            return acquire(join(running));
+        }
+        missCounter.increment();
+        try {
+            CachedFile loaded = load(fileName);
+            store(fileName, loaded);
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(fileName);
+        }
+    }
+
+    public void release(CachedFile file) {
+        synchronized (entries) {
+            file.readers--;
+        }
+    }
+
+    public void evict(String fileName) {
+        synchronized (entries) {
+            CachedFile removed = entries.remove(fileName);
+            if (removed != null) {
+                size -= removed.getLength();
+                retire(removed);
+            }
+        }
+    }
+
+    // Xóa các file đã bị loại, không còn ai đọc và đã qua delete-delay
+    @Scheduled(fixedDelayString = "${file.cache.delete-delay}")
+    public void purge() {
+        long deadline = System.currentTimeMillis() - deleteDelay;
+        List<CachedFile> deletable = new ArrayList<>();
+        synchronized (entries) {
+            Iterator<CachedFile> iterator = retired.iterator();
+            while (iterator.hasNext()) {
+                CachedFile file = iterator.next();
+                if (file.readers <= 0 && file.retiredAt <= deadline) {
+                    iterator.remove();
+                    deletable.add(file);
+                }
+            }
+        }
+        deletable.forEach(this::delete);
+    }
+
+    public void recordServed(long bytes) {
+        servedCounter.increment(bytes);
+    }
+
+    public double hitRatio() {
+        double total = hitCounter.count() + missCounter.count();
+        return total == 0 ? 0 : hitCounter.count() / total;
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    // Chỉ xóa file do cache tạo ra, phòng khi file.cache.directory trỏ nhầm vào thư mục dùng chung
+    private void deleteLeftovers() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private CachedFile lookup(String fileName) {
+        synchronized (entries) {
+            CachedFile file = entries.get(fileName);
+            if (file != null) {
+                file.readers++;
+            }
+            return file;
+        }
+    }
+
+    private CachedFile acquire(CachedFile file) {
+        synchronized (entries) {
+            file.readers++;
+        }
+        return file;
+    }
+
+    // Gọi khi đang giữ khóa entries
+    private void retire(CachedFile file) {
+        file.retiredAt = System.currentTimeMillis();
+        retired.add(file);
+    }
+
+    private CachedFile load(String fileName) {
+        String prefix = DigestUtils.md5DigestAsHex(fileName.getBytes(StandardCharsets.UTF_8)) + "-";
+        Path target = null;
+        boolean loaded = false;
+        try (S3Object object = amazonS3.getObject(bucketName, fileName);
+             S3ObjectInputStream inputStream = object.getObjectContent()) {
+            // Tên file riêng cho mỗi lần tải, không đụng tới bản cũ có thể vẫn đang được đọc
+            target = Files.createTempFile(directory, prefix, SUFFIX);
+            long length = Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+            ObjectMetadata metadata = object.getObjectMetadata();
+            loaded = true;
+            return new CachedFile(target, length, "\"" + metadata.getETag() + "\"", metadata.getContentType());
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                throw new NotFoundException("File không tồn tại", "File not found: " + fileName);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while download the file: " + fileName, e);
+        } finally {
+            if (target != null && !loaded) {
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException ignored) {
+                    // file tải dở sẽ bị xóa khi khởi động lại
+                }
+            }
+        }
+    }
+
+    // Lưu file vừa tải và giữ nó cho bên gọi
+    private void store(String fileName, CachedFile file) {
+        synchronized (entries) {
+            file.readers++;
+            CachedFile previous = entries.put(fileName, file);
+            if (previous != null) {
+                size -= previous.getLength();
+                retire(previous);
+            }
+            size += file.getLength();
+            Iterator<Map.Entry<String, CachedFile>> iterator = entries.entrySet().iterator();
+            // Luôn giữ lại file vừa tải (phần tử cuối) kể cả khi một mình nó vượt max-size
+            while (size > maxSize && entries.size() > 1 && iterator.hasNext()) {
+                Map.Entry<String, CachedFile> eldest = iterator.next();
+                iterator.remove();
+                size -= eldest.getValue().getLength();
+                retire(eldest.getValue());
+            }
+        }
+    }
+
+    private void delete(CachedFile file) {
+        try {
+            Files.deleteIfExists(file.getPath());
+        } catch (IOException e) {
+            log.warn("Could not delete cached file {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    private CachedFile join(CompletableFuture<CachedFile> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Getter
+    public static class CachedFile {
+        private final Path path;
+        private final long length;
+        private final String eTag;
+        private final String contentType;
+
+        // Các trường dưới được bảo vệ bởi khóa entries
+        @Getter(AccessLevel.NONE)
+        private int readers;
+        @Getter(AccessLevel.NONE)
+        private long retiredAt;
+
+        public CachedFile(Path path, long length, String eTag, String contentType) {
+            this.path = path;
+            this.length = length;
+            this.eTag = eTag;
+            this.contentType = contentType;
+        }
+    }
+}
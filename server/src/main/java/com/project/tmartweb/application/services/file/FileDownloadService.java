@@ -0,0 +1,113 @@
+package com.project.tmartweb.application.services.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.catalina.Globals;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Trả file từ FileCache về client, hỗ trợ ETag / If-None-Match và Range một đoạn.
+ * <p>
+ * Nội dung không đi qua heap: Tomcat NIO gửi bằng sendfile, connector không hỗ trợ thì copy bằng
+ * FileChannel.transferTo. Nhiều đoạn trong một Range thì trả cả file.
+ */
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private final FileCache fileCache;
+
+    public void serve(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileCache.CachedFile file = fileCache.get(fileName);
+        try {
+            serve(file, request, response);
+        } finally {
+            fileCache.release(file);
+        }
+    }
+
+    private void serve(FileCache.CachedFile file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = file.getLength();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (new ServletWebRequest(request, response).checkNotModified(file.getETag())) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(file.getContentType() != null
+                ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(file.getETag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range out of file: " + range);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (ranges.size() == 1) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        transfer(file, start, count, request, response);
+        fileCache.recordServed(count);
+    }
+
+    private void transfer(FileCache.CachedFile file, long start, long count,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.getPath().toAbsolutePath().toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, output);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+}
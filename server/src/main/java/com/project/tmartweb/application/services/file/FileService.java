@@ -1,22 +1,31 @@
 package com.project.tmartweb.application.services.file;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.Upload;
 import com.amazonaws.util.IOUtils;
 import lombok.RequiredArgsConstructor;
 import org.apache.juli.logging.Log;
 import org.apache.juli.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -26,45 +35,116 @@ public class FileService implements IFileService {
 
     private final AmazonS3 amazonS3;
 
+    private final TransferManager transferManager;
+
+    private final FileCache fileCache;
+
     private Log logger = LogFactory.getLog(FileService.class);
 
     @Override
     public String uploadFile(MultipartFile multipartFile) {
-        File file = convert(multipartFile);
-        String fileName = System.currentTimeMillis() + "-" + file.getName().replaceAll("\\s", "_");
-        amazonS3.putObject(new PutObjectRequest(bucketName, fileName, file)
+        return uploadFiles(List.of(multipartFile)).get(0);
+    }
+
+    /**
+     * Stream nội dung từng file thẳng lên S3 với content length đã biết, không ghi ra file tạm
+     * và không đọc cả file vào bộ nhớ. Các file được upload song song trên TransferManager.
+     * Nếu một file lỗi thì hủy các upload còn lại, xóa các file đã lên và ném lỗi.
+     */
+    @Override
+    public List<String> uploadFiles(List<MultipartFile> multipartFiles) {
+        List<String> fileNames = new ArrayList<>();
+        List<Upload> uploads = new ArrayList<>();
+        List<InputStream> inputStreams = new ArrayList<>();
+        try {
+            for (MultipartFile multipartFile : multipartFiles) {
+                String fileName = createFileName(multipartFile);
+                InputStream inputStream = multipartFile.getInputStream();
+                inputStreams.add(inputStream);
+                uploads.add(transferManager.upload(createRequest(fileName, multipartFile, inputStream)));
+                fileNames.add(fileName);
+            }
+            for (Upload upload : uploads) {
+                upload.waitForCompletion();
+            }
+        } catch (IOException | AmazonClientException exception) {
+            rollback(uploads, fileNames);
+            throw new RuntimeException("Error occurred while upload the file: " + exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            rollback(uploads, fileNames);
+            throw new RuntimeException("Upload interrupted: " + exception);
+        } finally {
+            inputStreams.forEach(inputStream -> IOUtils.closeQuietly(inputStream, null));
+        }
+        return fileNames.stream()
+                .map(fileName -> amazonS3.getUrl(bucketName, fileName).toString())
+                .toList();
+    }
+
+    @Override
+    public String uploadFile(String fileName, byte[] content, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.length);
+        metadata.setContentType(contentType);
+        amazonS3.putObject(new PutObjectRequest(bucketName, fileName, new ByteArrayInputStream(content), metadata)
                 .withCannedAcl(CannedAccessControlList.PublicRead));
-        file.delete();
         return amazonS3.getUrl(bucketName, fileName).toString();
     }
 
+    // Key của file trên S3 là phần cuối của url do amazonS3.getUrl trả về
     @Override
-    public byte[] downloadFile(String fileName) {
-        S3Object s3Object = amazonS3.getObject(bucketName, fileName);
-        S3ObjectInputStream inputStream = s3Object.getObjectContent();
+    public String getFileName(String url) {
+        return UriUtils.decode(url.substring(url.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+    }
 
+    @Override
+    public byte[] downloadFile(String fileName) {
+        FileCache.CachedFile file = fileCache.get(fileName);
         try {
-            return IOUtils.toByteArray(inputStream);
+            return Files.readAllBytes(file.getPath());
         } catch (IOException exception) {
             throw new RuntimeException("Error occurred while download the file: " + exception);
+        } finally {
+            fileCache.release(file);
         }
     }
 
     @Override
     public String deleteFile(String fileName) {
         amazonS3.deleteObject(bucketName, fileName);
+        fileCache.evict(fileName);
         return fileName;
     }
 
-    private File convert(MultipartFile multipartFile) {
-        File file = new File(Objects.requireNonNull(multipartFile.getOriginalFilename()));
+    private PutObjectRequest createRequest(String fileName, MultipartFile multipartFile, InputStream inputStream) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(multipartFile.getSize());
+        metadata.setContentType(multipartFile.getContentType());
+        return new PutObjectRequest(bucketName, fileName, inputStream, metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead);
+    }
+
+    // Chỉ giữ lại tên file (bỏ đường dẫn client gửi lên), thêm tiền tố để các upload song song không trùng key
+    private String createFileName(MultipartFile multipartFile) {
+        String originalName = StringUtils.getFilename(
+                Objects.requireNonNullElse(multipartFile.getOriginalFilename(), "file"));
+        return System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8) + "-"
+                + originalName.replaceAll("[^\\w.-]", "_");
+    }
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-            fileOutputStream.write(multipartFile.getBytes());
-        } catch (IOException exception) {
-            throw new RuntimeException("Error occurred while convert multipart file into file: " + exception);
+    private void rollback(List<Upload> uploads, List<String> fileNames) {
+        for (Upload upload : uploads) {
+            if (!upload.isDone()) {
+                upload.abort();
+            }
+        }
+        for (String fileName : fileNames) {
+            try {
+                amazonS3.deleteObject(bucketName, fileName);
+            } catch (AmazonClientException exception) {
+                logger.warn("Could not delete uploaded file " + fileName + ": " + exception.getMessage());
+            }
         }
-
-        return file;
     }
 }
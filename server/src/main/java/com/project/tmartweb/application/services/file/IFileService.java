@@ -2,9 +2,17 @@ package com.project.tmartweb.application.services.file;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 public interface IFileService {
     String uploadFile(MultipartFile multipartFile);
 
+    List<String> uploadFiles(List<MultipartFile> multipartFiles);
+
+    String uploadFile(String fileName, byte[] content, String contentType);
+
+    String getFileName(String url);
+
     byte[] downloadFile(String fileName);
 
     String deleteFile(String fileName);
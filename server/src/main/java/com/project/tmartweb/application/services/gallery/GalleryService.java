@@ -2,6 +2,7 @@ package com.project.tmartweb.application.services.gallery;
 
 import com.project.tmartweb.application.repositories.GalleryRepository;
 import com.project.tmartweb.application.services.file.IFileService;
+import com.project.tmartweb.application.services.image.ImageVariantService;
 import com.project.tmartweb.application.services.product.IProductService;
 import com.project.tmartweb.config.exceptions.NotFoundException;
 import com.project.tmartweb.domain.dtos.GalleryDTO;
@@ -23,6 +24,7 @@ public class GalleryService implements IGalleryService {
     private final GalleryRepository galleryRepository;
     private final IProductService productService;
     private final IFileService fileService;
+    private final ImageVariantService imageVariantService;
 
     @Override
     public Gallery insert(GalleryDTO galleryDTO) {
@@ -69,7 +71,7 @@ public class GalleryService implements IGalleryService {
         Gallery gallery = new Gallery();
         gallery.setProduct(product);
         gallery.setImage(fileService.uploadFile(image));
-        return galleryRepository.save(gallery);
+        return saveWithVariants(gallery);
     }
 
     @Override
@@ -78,6 +80,13 @@ public class GalleryService implements IGalleryService {
         Gallery gallery = getById(id);
         gallery.setProduct(product);
         gallery.setImage(fileService.uploadFile(image));
-        return galleryRepository.save(gallery);
+        gallery.setVariants(null);
+        return saveWithVariants(gallery);
+    }
+
+    private Gallery saveWithVariants(Gallery gallery) {
+        Gallery saved = galleryRepository.save(gallery);
+        imageVariantService.generateGalleryVariants(saved.getId());
+        return saved;
     }
 }
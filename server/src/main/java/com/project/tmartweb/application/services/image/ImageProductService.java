@@ -3,6 +3,7 @@ package com.project.tmartweb.application.services.image;
 import com.project.tmartweb.application.repositories.ImageProductRepository;
 import com.project.tmartweb.application.services.file.FileService;
 import com.project.tmartweb.application.services.product.IProductService;
+import com.project.tmartweb.application.services.product.ProductCache;
 import com.project.tmartweb.config.exceptions.InvalidParamException;
 import com.project.tmartweb.domain.entities.ImageProduct;
 import com.project.tmartweb.domain.entities.Product;
@@ -10,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +21,8 @@ public class ImageProductService implements IImageProductService {
     private final ImageProductRepository imageProductRepository;
     private final FileService fileService;
     private final IProductService productService;
+    private final ProductCache productCache;
+    private final ImageVariantService imageVariantService;
 
     @Override
     public List<ImageProduct> getByProductId(String productId) {
@@ -28,13 +32,17 @@ public class ImageProductService implements IImageProductService {
     @Override
     public String uploadImages(String productId, List<MultipartFile> images) {
         Product product = productService.getById(productId);
-        for (MultipartFile file : images) {
-            String url = fileService.uploadFile(file);
+        List<ImageProduct> imageProducts = new ArrayList<>();
+        for (String url : fileService.uploadFiles(images)) {
             ImageProduct imageProduct = new ImageProduct();
             imageProduct.setUrl(url);
             imageProduct.setProduct(product);
-            imageProductRepository.save(imageProduct);
+            imageProducts.add(imageProduct);
         }
+        for (ImageProduct imageProduct : imageProductRepository.saveAll(imageProducts)) {
+            imageVariantService.generateImageProductVariants(imageProduct.getId());
+        }
+        productCache.evict(List.of(productId));
         return "Upload images success";
     }
 
@@ -47,6 +55,7 @@ public class ImageProductService implements IImageProductService {
                         "Not found image"));
 
         imageProductRepository.delete(imageProduct);
+        productCache.evict(List.of(imageProduct.getProduct().getId()));
     }
 
     @Override
@@ -0,0 +1,95 @@
+package com.project.tmartweb.application.services.image;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Thu nhỏ ảnh bằng ImageIO / Java2D.
+ * <p>
+ * Ảnh PNG giữ định dạng PNG để không mất nền trong suốt, các định dạng khác được ghi ra JPEG.
+ * Khi thu nhỏ nhiều lần kích thước thì giảm dần mỗi bước một nửa để ảnh không bị răng cưa.
+ */
+@Component
+public class ImageResizer {
+    public static final String PNG = "png";
+    public static final String JPEG = "jpg";
+    private static final float JPEG_QUALITY = 0.85f;
+
+    public BufferedImage read(byte[] content) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+        return image;
+    }
+
+    public String formatOf(String fileName) {
+        return fileName.toLowerCase().endsWith("." + PNG) ? PNG : JPEG;
+    }
+
+    public byte[] resize(BufferedImage source, int width, String format) throws IOException {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        int type = PNG.equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight, type);
+        } while (currentWidth > width || currentHeight > height);
+
+        return PNG.equals(format) ? writePng(current) : writeJpeg(current);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // JPEG không có kênh alpha, tô nền trắng cho phần trong suốt
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] writePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, PNG, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private byte[] writeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(JPEG).next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
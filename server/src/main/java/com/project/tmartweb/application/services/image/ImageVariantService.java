@@ -0,0 +1,197 @@
+package com.project.tmartweb.application.services.image;
+
+import com.project.tmartweb.application.repositories.GalleryRepository;
+import com.project.tmartweb.application.repositories.ImageProductRepository;
+import com.project.tmartweb.application.services.file.IFileService;
+import com.project.tmartweb.application.services.product.ProductCache;
+import com.project.tmartweb.domain.entities.Gallery;
+import com.project.tmartweb.domain.entities.ImageProduct;
+import com.project.tmartweb.domain.enums.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tạo các ảnh thu nhỏ (ImageVariant) cho ảnh sản phẩm và ảnh trưng bày, lưu cạnh ảnh gốc trên S3.
+ * <p>
+ * Việc xử lý chạy trên một pool riêng có giới hạn, không bao giờ chạy trên thread của request upload:
+ * khi hàng đợi đầy, ảnh upload bị bỏ qua và giữ variants = null. Ảnh xử lý lỗi hoặc bị bỏ qua sẽ được
+ * backfill lấy lại. Backfill chờ permit trước khi gửi việc nên chỉ chiếm tối đa threads chỗ trong pool,
+ * phần còn lại của hàng đợi dành cho ảnh upload.
+ * <p>
+ * Kết quả chỉ ghi riêng cột variants và chỉ khi url ảnh gốc vẫn là url đã resize, nên không ghi đè
+ * ảnh mới hoặc các cột khác được cập nhật trong lúc đang xử lý.
+ */
+@Service
+@Log4j2
+public class ImageVariantService {
+    private final ImageProductRepository imageProductRepository;
+    private final GalleryRepository galleryRepository;
+    private final IFileService fileService;
+    private final ImageResizer imageResizer;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore backfillPermits;
+
+    public ImageVariantService(ImageProductRepository imageProductRepository,
+                               GalleryRepository galleryRepository,
+                               IFileService fileService,
+                               ImageResizer imageResizer,
+                               ProductCache productCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${image.processing.threads}") int threads,
+                               @Value("${image.processing.queue-capacity}") int queueCapacity) {
+        this.imageProductRepository = imageProductRepository;
+        this.galleryRepository = galleryRepository;
+        this.fileService = fileService;
+        this.imageResizer = imageResizer;
+        this.productCache = productCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("Image-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.backfillPermits = new Semaphore(threads);
+    }
+
+    public void generateImageProductVariants(UUID id) {
+        submit(() -> processImageProduct(id), id);
+    }
+
+    public void generateGalleryVariants(UUID id) {
+        submit(() -> processGallery(id), id);
+    }
+
+    @Async
+    public void backfill() {
+        List<UUID> imageIds = imageProductRepository.findIdsWithoutVariants();
+        List<UUID> galleryIds = galleryRepository.findIdsWithoutVariants();
+        log.info("Backfilling variants for {} product images and {} gallery images",
+                imageIds.size(), galleryIds.size());
+        try {
+            for (UUID id : imageIds) {
+                backfill(() -> processImageProduct(id), id);
+            }
+            for (UUID id : galleryIds) {
+                backfill(() -> processGallery(id), id);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Runnable task, UUID id) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Image processing queue is full, variants for {} are left to the backfill", id);
+        }
+    }
+
+    private void backfill(Runnable task, UUID id) throws InterruptedException {
+        backfillPermits.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    backfillPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backfillPermits.release();
+            log.warn("Image processing queue is full, skipped backfilling variants for {}", id);
+        }
+    }
+
+    private void processImageProduct(UUID id) {
+        ImageProduct imageProduct = imageProductRepository.findById(id).orElse(null);
+        if (imageProduct == null) {
+            return;
+        }
+        String sourceUrl = imageProduct.getUrl();
+        Map<String, String> variants = createVariants(sourceUrl);
+        if (variants == null) {
+            return;
+        }
+        Integer updated = transactionTemplate.execute(
+                status -> imageProductRepository.updateVariants(id, sourceUrl, variants));
+        if (updated != null && updated > 0) {
+            productCache.evict(List.of(imageProduct.getProduct().getId()));
+        } else {
+            log.info("Product image {} changed while creating variants, skipped", id);
+        }
+    }
+
+    private void processGallery(UUID id) {
+        Gallery gallery = galleryRepository.findById(id).orElse(null);
+        if (gallery == null) {
+            return;
+        }
+        String sourceUrl = gallery.getImage();
+        Map<String, String> variants = createVariants(sourceUrl);
+        if (variants == null) {
+            return;
+        }
+        Integer updated = transactionTemplate.execute(
+                status -> galleryRepository.updateVariants(id, sourceUrl, variants));
+        if (updated == null || updated == 0) {
+            log.info("Gallery image {} changed while creating variants, skipped", id);
+        }
+    }
+
+    private Map<String, String> createVariants(String url) {
+        try {
+            String fileName = fileService.getFileName(url);
+            BufferedImage source = imageResizer.read(fileService.downloadFile(fileName));
+            String format = imageResizer.formatOf(fileName);
+            Map<String, String> variants = new LinkedHashMap<>();
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (source.getWidth() <= variant.getWidth()) {
+                    // Ảnh gốc đã đủ nhỏ, dùng luôn ảnh gốc
+                    variants.put(variant.getKey(), url);
+                    continue;
+                }
+                byte[] content = imageResizer.resize(source, variant.getWidth(), format);
+                variants.put(variant.getKey(), fileService.uploadFile(
+                        variantFileName(fileName, variant, format), content, "image/" + contentSubtype(format)));
+            }
+            return variants;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Creating variants for {} failed: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private String variantFileName(String fileName, ImageVariant variant, String format) {
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return baseName + "-" + variant.getKey() + "." + format;
+    }
+
+    private String contentSubtype(String format) {
+        return ImageResizer.PNG.equals(format) ? "png" : "jpeg";
+    }
+}
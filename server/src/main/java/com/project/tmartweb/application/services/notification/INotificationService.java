@@ -13,7 +13,11 @@ public interface INotificationService extends IBaseService<Notification, Notific
 
     PaginationDTO<Notification> getAllByUser(UUID userId, Integer page, Integer perPage);
 
+    PaginationDTO<Notification> getAllByUser(UUID userId, String cursor, Integer perPage, boolean withTotal);
+
     List<Notification> getAllByUserAndRead(UUID userId);
 
-    void readAllNotifications(UUID userId);
+    int readAllNotifications(UUID userId);
+
+    long countUnread(UUID userId);
 }
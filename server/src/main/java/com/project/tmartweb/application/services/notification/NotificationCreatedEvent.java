@@ -0,0 +1,32 @@
+package com.project.tmartweb.application.services.notification;
+
+import com.project.tmartweb.application.responses.NotificationMessage;
+import com.project.tmartweb.domain.entities.Notification;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Phát ra sau khi lưu một thông báo, NotificationHub đẩy tới các kết nối SSE của user sau khi commit.
+ * Dữ liệu được sao chép ngay khi tạo event để không phải truy cập entity ngoài transaction.
+ */
+@Getter
+public class NotificationCreatedEvent {
+    private final UUID userId;
+
+    private final NotificationMessage message;
+
+    public NotificationCreatedEvent(Notification notification) {
+        this.userId = notification.getUser() == null ? null : notification.getUser().getId();
+        this.message = new NotificationMessage(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getContent(),
+                notification.getRead(),
+                notification.getOrder() == null ? null : notification.getOrder().getId(),
+                notification.getCreatedAt() == null
+                        ? new Timestamp(System.currentTimeMillis())
+                        : notification.getCreatedAt());
+    }
+}
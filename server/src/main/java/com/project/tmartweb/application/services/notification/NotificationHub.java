@@ -0,0 +1,158 @@
+package com.project.tmartweb.application.services.notification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Giữ các kết nối SSE theo user và đẩy thông báo mới tới tất cả kết nối của user đó.
+ * <p>
+ * Kết nối chờ không chiếm thread (async servlet). Mỗi kết nối có một hàng đợi giới hạn,
+ * việc ghi ra socket chạy trên virtual thread; client đọc chậm làm đầy hàng đợi sẽ bị đóng
+ * kết nối để EventSource tự kết nối lại và tải lại danh sách thông báo.
+ */
+@Component
+@Log4j2
+public class NotificationHub {
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${notification.stream.timeout}")
+    private long timeout;
+
+    @Value("${notification.stream.buffer-size}")
+    private int bufferSize;
+
+    public NotificationHub(MeterRegistry meterRegistry) {
+        Gauge.builder("notification.stream.connections", connections, AtomicInteger::get)
+                .description("Số kết nối SSE thông báo đang mở")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(userId, emitter, new LinkedBlockingQueue<>(bufferSize));
+        // Thêm trong compute để không thêm vào tập vừa bị unsubscribe gỡ khỏi map
+        subscribers.compute(userId, (key, targets) -> {
+            Set<Subscriber> result = targets == null ? ConcurrentHashMap.newKeySet() : targets;
+            result.add(subscriber);
+            return result;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        offer(subscriber, () -> SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        Set<Subscriber> targets = event.getUserId() == null ? null : subscribers.get(event.getUserId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            offer(subscriber, () -> SseEmitter.event()
+                    .name("notification")
+                    .id(String.valueOf(event.getMessage().getId()))
+                    .data(event.getMessage()));
+        }
+    }
+
+    // Giữ kết nối qua proxy / load balancer và phát hiện client đã ngắt
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat-interval}")
+    public void heartbeat() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                offer(subscriber, () -> SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.getEmitter().complete();
+            }
+        }
+        sender.shutdown();
+    }
+
+    private void offer(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (!subscriber.getQueue().offer(event.get())) {
+            log.warn("Closing slow notification stream of user {}", subscriber.getUserId());
+            unsubscribe(subscriber);
+            subscriber.getEmitter().complete();
+            return;
+        }
+        if (subscriber.getDraining().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.getQueue().poll()) != null) {
+                subscriber.getEmitter().send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscriber);
+            subscriber.getEmitter().completeWithError(e);
+            return;
+        } finally {
+            subscriber.getDraining().set(false);
+        }
+        // Có event mới được thêm vào sau khi vòng lặp kết thúc
+        if (!subscriber.getQueue().isEmpty() && subscriber.getDraining().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.getUserId(), (key, targets) -> {
+            removed.set(targets.remove(subscriber));
+            return targets.isEmpty() ? null : targets;
+        });
+        if (removed.get()) {
+            connections.decrementAndGet();
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Subscriber {
+        private final UUID userId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+}
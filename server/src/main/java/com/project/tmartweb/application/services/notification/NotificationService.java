@@ -9,13 +9,16 @@ import com.project.tmartweb.domain.entities.Notification;
 import com.project.tmartweb.domain.entities.Order;
 import com.project.tmartweb.domain.entities.User;
 import com.project.tmartweb.domain.paginate.BasePagination;
+import com.project.tmartweb.domain.paginate.Cursor;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +31,7 @@ public class NotificationService implements INotificationService {
     private final IUserService userService;
     private final IOrderService orderService;
     private final ModelMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Notification insert(NotificationDTO notificationDTO) {
@@ -36,7 +40,9 @@ public class NotificationService implements INotificationService {
         Order order = orderService.getById(notificationDTO.getOrderId());
         notification.setUser(user);
         notification.setOrder(order);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(saved));
+        return saved;
     }
 
     @Override
@@ -92,20 +98,34 @@ public class NotificationService implements INotificationService {
         return basePagination.paginate(page, perPage, pageNotifications);
     }
 
+    @Override
+    public PaginationDTO<Notification> getAllByUser(UUID userId, String cursor, Integer perPage, boolean withTotal) {
+        int size = BasePagination.perPageOrDefault(perPage);
+        Cursor after = Cursor.decode(cursor);
+        List<Notification> notifications = after == null
+                ? notificationRepository.findAllByUserIdFirstPage(userId, PageRequest.of(0, size + 1))
+                : notificationRepository.findAllByUserIdAfter(userId, after.getCreatedAt(), after.getUuid(),
+                PageRequest.of(0, size + 1));
+        Long total = withTotal ? notificationRepository.countByUserId(userId) : null;
+        BasePagination<Notification, NotificationRepository> basePagination = new BasePagination<>();
+        return basePagination.paginate(notifications, size,
+                notification -> new Cursor(notification.getCreatedAt(), notification.getId().toString()), total);
+    }
+
     @Override
     public List<Notification> getAllByUserAndRead(UUID userId) {
         return notificationRepository.findAllByUserIdAndRead(userId, false, Sort.by("createdAt").descending());
     }
 
     @Override
-    public void readAllNotifications(UUID userId) {
-        List<Notification> notifications = notificationRepository.findAll();
-        User user = userService.getById(userId);
-        for (Notification notification : notifications) {
-            if (notification.getUser().equals(user)) {
-                notification.setRead(Boolean.TRUE);
-                notificationRepository.save(notification);
-            }
-        }
+    @Transactional
+    public int readAllNotifications(UUID userId) {
+        userService.getById(userId);
+        return notificationRepository.readAllByUserId(userId);
+    }
+
+    @Override
+    public long countUnread(UUID userId) {
+        return notificationRepository.countByUserIdAndRead(userId, false);
     }
 }
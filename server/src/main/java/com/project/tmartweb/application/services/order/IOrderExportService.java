@@ -1,8 +1,16 @@
 package com.project.tmartweb.application.services.order;
 
 import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.enums.ExportFormat;
+import com.project.tmartweb.domain.enums.OrderStatus;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.OutputStream;
+import java.sql.Timestamp;
+
 public interface IOrderExportService {
     void exportBillOrder(Order order, HttpServletResponse response);
+
+    void exportBillOrders(Timestamp startDate, Timestamp endDate, OrderStatus status, ExportFormat format,
+                          OutputStream outputStream);
 }
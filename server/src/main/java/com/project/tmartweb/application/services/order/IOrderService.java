@@ -8,6 +8,7 @@ import com.project.tmartweb.domain.entities.Cart;
 import com.project.tmartweb.domain.entities.Order;
 import com.project.tmartweb.domain.enums.OrderStatus;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
+import jakarta.mail.internet.MimeMessage;
 import jakarta.servlet.http.HttpServletRequest;
 import com.project.tmartweb.application.responses.RevenueByDate;
 import com.project.tmartweb.application.responses.RevenueByWeek;
@@ -30,6 +31,8 @@ public interface IOrderService extends IBaseService<Order, OrderDTO, UUID> {
 
     List<Statistical> statisticals(int year);
 
+    List<RevenueByWeek> weeklyStatisticals(int year);
+
 
     List<RevenueByDate> getDailyStats(Timestamp startDate, Timestamp endDate);
 
@@ -39,9 +42,9 @@ public interface IOrderService extends IBaseService<Order, OrderDTO, UUID> {
 
     List<CategorySalesStatistical> getCategorySalesStats(Timestamp startDate, Timestamp endDate);
 
-    void sendMailCreateOrder(Order order);
+    MimeMessage prepareMailCreateOrder(Order order);
 
-    void sendMailShippedOrder(Order order);
+    MimeMessage prepareMailShippedOrder(Order order);
 
     PaginationDTO<Order> getAllByFilter(
             Timestamp startDate,
@@ -50,4 +53,13 @@ public interface IOrderService extends IBaseService<Order, OrderDTO, UUID> {
             Integer page,
             Integer perPage
     );
+
+    PaginationDTO<Order> getAllByFilter(
+            Timestamp startDate,
+            Timestamp endDate,
+            OrderStatus status,
+            String cursor,
+            Integer perPage,
+            boolean withTotal
+    );
 }
\ No newline at end of file
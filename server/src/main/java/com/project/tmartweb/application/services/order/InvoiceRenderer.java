@@ -0,0 +1,126 @@
+package com.project.tmartweb.application.services.order;
+
+import com.lowagie.text.Font;
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.entities.OrderDetail;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Vẽ hóa đơn PDF cho đơn hàng.
+ * <p>
+ * Font được đọc một lần từ classpath khi khởi động (chạy được cả khi đóng gói jar), BaseFont / Font
+ * chỉ đọc nên dùng chung cho mọi request. Mỗi document chỉ nhúng các glyph đã dùng.
+ */
+@Component
+public class InvoiceRenderer {
+    private static final String FONT_PATH = "fonts/OpenSans.ttf";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
+            .ofPattern("HH:mm:ss, dd-MM-yyyy")
+            .withZone(ZoneId.systemDefault());
+    private static final String[] HEADERS = {"STT", "Tên sản phẩm", "Phân loại", "Số lượng", "Giá tiền", "Tổng tiền"};
+    private static final float[] COLUMN_WIDTHS = {1.0f, 5.0f, 2.0f, 2.0f, 2.5f, 2.5f};
+
+    private final BaseFont baseFont;
+    private final Font titleFont;
+    private final Font headerFont;
+    private final Font contentFont;
+
+    public InvoiceRenderer() throws IOException {
+        byte[] fontBytes;
+        try (InputStream inputStream = new ClassPathResource(FONT_PATH).getInputStream()) {
+            fontBytes = inputStream.readAllBytes();
+        }
+        this.baseFont = BaseFont.createFont(FONT_PATH, BaseFont.IDENTITY_H, BaseFont.EMBEDDED,
+                true, fontBytes, null);
+        this.titleFont = new Font(baseFont, 18, Font.BOLD, Color.BLUE);
+        this.headerFont = new Font(baseFont, 12, Font.BOLD, Color.WHITE);
+        this.contentFont = new Font(baseFont, 12, Font.NORMAL);
+    }
+
+    /**
+     * Ghi một hóa đơn thành một file PDF. Không đóng outputStream để dùng được với ZipOutputStream.
+     */
+    public void render(Order order, List<OrderDetail> orderDetails, OutputStream outputStream) {
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            document.open();
+            write(document, order, orderDetails);
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Thêm hóa đơn vào document đang mở, dùng khi xuất nhiều hóa đơn trong một file PDF.
+     */
+    public void write(Document document, Order order, List<OrderDetail> orderDetails) {
+        Paragraph title = new Paragraph("Hóa đơn mua hàng", titleFont);
+        title.setSpacingAfter(15);
+        title.setAlignment(Paragraph.ALIGN_CENTER);
+        document.add(title);
+
+        document.add(new Paragraph("Mã đơn hàng: " + order.getId(), contentFont));
+        document.add(new Paragraph("Ngày tạo: " + DATE_TIME_FORMATTER.format(
+                Instant.ofEpochMilli(order.getCreatedAt().getTime())), contentFont));
+        document.add(new Paragraph("Tên người nhận: " + order.getFullName(), contentFont));
+        document.add(new Paragraph("Số điện thoại người nhận: " + order.getPhoneNumber(), contentFont));
+        document.add(new Paragraph("Địa chỉ người nhận: " + order.getAddress(), contentFont));
+        document.add(new Paragraph(" "));
+
+        Paragraph p = new Paragraph("Hóa đơn", titleFont);
+        p.setAlignment(Paragraph.ALIGN_CENTER);
+        p.setSpacingAfter(15);
+        document.add(p);
+
+        PdfPTable table = new PdfPTable(COLUMN_WIDTHS.length);
+        table.setWidthPercentage(100f);
+        table.setWidths(COLUMN_WIDTHS);
+        table.setSpacingBefore(10);
+        writeTableHeader(table);
+        writeTableData(table, orderDetails);
+        document.add(table);
+    }
+
+    private void writeTableHeader(PdfPTable table) {
+        PdfPCell cell = new PdfPCell();
+        cell.setBackgroundColor(Color.BLUE);
+        cell.setPadding(5);
+        for (String header : HEADERS) {
+            cell.setPhrase(new Phrase(header, headerFont));
+            table.addCell(cell);
+        }
+    }
+
+    private void writeTableData(PdfPTable table, List<OrderDetail> orderDetails) {
+        // DecimalFormat không thread-safe nên tạo mới cho mỗi hóa đơn
+        DecimalFormat decimalFormat = new DecimalFormat("#,###");
+        int index = 1;
+        for (OrderDetail orderDetail : orderDetails) {
+            table.addCell(new Phrase(Integer.toString(index), contentFont));
+            table.addCell(new Phrase(orderDetail.getProduct().getTitle(), contentFont));
+            table.addCell(new Phrase(orderDetail.getClassify(), contentFont));
+            table.addCell(new Phrase(Integer.toString(orderDetail.getQuantity()), contentFont));
+            table.addCell(new Phrase(decimalFormat.format(orderDetail.getPrice()) + "₫", contentFont));
+            table.addCell(new Phrase(decimalFormat.format(orderDetail.getTotalMoney()) + "₫", contentFont));
+            index++;
+        }
+    }
+}
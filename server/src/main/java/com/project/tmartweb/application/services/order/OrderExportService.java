@@ -1,123 +1,137 @@
 package com.project.tmartweb.application.services.order;
 
-import com.lowagie.text.Font;
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.BaseFont;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.Document;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfWriter;
 import com.project.tmartweb.application.repositories.OrderDetailRepository;
+import com.project.tmartweb.application.repositories.OrderRepository;
+import com.project.tmartweb.config.exceptions.InvalidParamException;
 import com.project.tmartweb.domain.entities.Order;
 import com.project.tmartweb.domain.entities.OrderDetail;
+import com.project.tmartweb.domain.enums.ExportFormat;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import com.project.tmartweb.domain.paginate.Cursor;
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.awt.*;
 import java.io.IOException;
-import java.text.DecimalFormat;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 
 @Service
 @RequiredArgsConstructor
 public class OrderExportService implements IOrderExportService {
+    private static final int EXPORT_BATCH_SIZE = 100;
+
+    private final OrderRepository orderRepository;
     private final OrderDetailRepository orderDetailRepository;
+    private final InvoiceRenderer invoiceRenderer;
+    private final EntityManager entityManager;
 
     @Override
     public void exportBillOrder(Order order, HttpServletResponse response) {
-        try (Document document = new Document(PageSize.A4)) {
-
-            PdfWriter.getInstance(document, response.getOutputStream());
-
-            document.open();
-            String fontPath = "src/main/resources/fonts/OpenSans.ttf";
-            BaseFont baseFont = BaseFont.createFont(
-                    fontPath,
-                    BaseFont.IDENTITY_H,
-                    BaseFont.EMBEDDED
-            );
-            Font titleFont = new Font(baseFont, 18, Font.BOLD, Color.BLUE);
-            Paragraph title = new Paragraph("Hóa đơn mua hàng", titleFont);
-            title.setSpacingAfter(15);
-
-            title.setAlignment(Paragraph.ALIGN_CENTER);
-            document.add(title);
-
-            Paragraph p = new Paragraph("Hóa đơn", titleFont);
-            p.setAlignment(Paragraph.ALIGN_CENTER);
-            p.setSpacingAfter(15);
-            DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss, dd-MM-yyyy");
-            LocalDateTime dateTime = Instant.ofEpochMilli(order.getCreatedAt().getTime())
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
-            document.add(new Paragraph("Mã đơn hàng: " + order.getId()));
-            document.add(new Paragraph("Ngày tạo: " + dateTime.format(dateTimeFormatter)));
-            document.add(new Paragraph("Tên người nhận: " + order.getFullName()));
-            document.add(new Paragraph("Số điện thoại người nhận: " + order.getPhoneNumber()));
-            document.add(new Paragraph("Địa chỉ người nhận: " + order.getAddress()));
-            document.add(new Paragraph(" "));
-
-            document.add(p);
-
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100f);
-            table.setWidths(new float[]{1.0f, 5.0f, 2.0f, 2.0f, 2.5f, 2.5f});
-            table.setSpacingBefore(10);
-            Font contentFont = new Font(baseFont, 12, Font.NORMAL);
-            writeTableHeader(table, baseFont);
-            writeTableData(table, order, contentFont);
-
-            document.add(table);
-        } catch (DocumentException | IOException e) {
+        try {
+            invoiceRenderer.render(order, orderDetailRepository.findAllByOrderId(order.getId()),
+                    response.getOutputStream());
+        } catch (IOException e) {
             throw new RuntimeException("Error occurred while generating PDF", e);
         }
     }
 
-    private void writeTableHeader(PdfPTable table, BaseFont baseFont) {
-        PdfPCell cell = new PdfPCell();
-
-        cell.setBackgroundColor(Color.BLUE);
-        cell.setPadding(5);
-
-        Font font = new Font(baseFont, 12, Font.BOLD);
-        font.setColor(Color.WHITE);
-
-        cell.setPhrase(new Phrase("STT", font));
-        table.addCell(cell);
-
-        cell.setPhrase(new Phrase("Tên sản phẩm", font));
-        table.addCell(cell);
-
-        cell.setPhrase(new Phrase("Phân loại", font));
-        table.addCell(cell);
+    /**
+     * Xuất hóa đơn của các đơn hàng trong khoảng thời gian, ghi thẳng ra outputStream.
+     * Đơn hàng được đọc theo từng lô (keyset) và persistence context được xóa sau mỗi lô
+     * nên bộ nhớ không tăng theo số đơn hàng.
+     */
+    @Override
+    public void exportBillOrders(Timestamp startDate, Timestamp endDate, OrderStatus status,
+                                 ExportFormat format, OutputStream outputStream) {
+        if (startDate == null || endDate == null) {
+            throw new InvalidParamException("Vui lòng chọn khoảng thời gian xuất hóa đơn",
+                    "startDate and endDate are required");
+        }
+        try {
+            if (format == ExportFormat.ZIP) {
+                exportZip(startDate, endDate, status, outputStream);
+            } else {
+                exportPdf(startDate, endDate, status, outputStream);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error occurred while generating PDF", e);
+        }
+    }
 
-        cell.setPhrase(new Phrase("Số lượng", font));
-        table.addCell(cell);
+    private void exportPdf(Timestamp startDate, Timestamp endDate, OrderStatus status,
+                           OutputStream outputStream) throws IOException {
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter.getInstance(document, outputStream).setCloseStream(false);
+            document.open();
+            int exported = forEachOrder(startDate, endDate, status, (order, orderDetails) -> {
+                document.newPage();
+                invoiceRenderer.write(document, order, orderDetails);
+            });
+            if (exported == 0) {
+                document.add(new Paragraph("Không có đơn hàng"));
+            }
+        } finally {
+            document.close();
+        }
+    }
 
-        cell.setPhrase(new Phrase("Giá tiền", font));
-        table.addCell(cell);
+    private void exportZip(Timestamp startDate, Timestamp endDate, OrderStatus status,
+                           OutputStream outputStream) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        forEachOrder(startDate, endDate, status, (order, orderDetails) -> {
+            zipOutputStream.putNextEntry(new ZipEntry("bill_" + order.getId() + ".pdf"));
+            invoiceRenderer.render(order, orderDetails, zipOutputStream);
+            zipOutputStream.closeEntry();
+        });
+        zipOutputStream.finish();
+    }
 
-        cell.setPhrase(new Phrase("Tổng tiền", font));
-        table.addCell(cell);
+    private int forEachOrder(Timestamp startDate, Timestamp endDate, OrderStatus status,
+                             InvoiceWriter writer) throws IOException {
+        int exported = 0;
+        Cursor cursor = null;
+        List<Order> orders;
+        do {
+            orders = cursor == null
+                    ? orderRepository.findAllByFilterFirstPage(startDate, endDate, status,
+                    PageRequest.of(0, EXPORT_BATCH_SIZE))
+                    : orderRepository.findAllByFilterAfter(startDate, endDate, status,
+                    cursor.getCreatedAt(), cursor.getUuid(), PageRequest.of(0, EXPORT_BATCH_SIZE));
+            if (orders.isEmpty()) {
+                break;
+            }
+            List<UUID> orderIds = orders.stream().map(Order::getId).toList();
+            Map<UUID, List<OrderDetail>> orderDetails = orderDetailRepository.findAllWithProductByOrderIdIn(orderIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(orderDetail -> orderDetail.getOrder().getId()));
+            for (Order order : orders) {
+                writer.write(order, orderDetails.getOrDefault(order.getId(), List.of()));
+                exported++;
+            }
+            Order last = orders.get(orders.size() - 1);
+            cursor = new Cursor(last.getCreatedAt(), last.getId().toString());
+            entityManager.clear();
+        } while (orders.size() == EXPORT_BATCH_SIZE);
+        return exported;
     }
 
-    private void writeTableData(PdfPTable table, Order order, Font contentFont) {
-        List<OrderDetail> orderDetails = orderDetailRepository.findAllByOrderId(order.getId());
-        int index = 1;
-        DecimalFormat decimalFormat = new DecimalFormat("#,###");
-        for (OrderDetail orderDetail : orderDetails) {
-            table.addCell(new Phrase(Integer.toString(index), contentFont));
-            table.addCell(new Phrase(orderDetail.getProduct().getTitle(), contentFont));
-            table.addCell(new Phrase(orderDetail.getClassify(), contentFont));
-            table.addCell(new Phrase(Integer.toString(orderDetail.getQuantity()), contentFont));
-            table.addCell(new Phrase(decimalFormat.format(orderDetail.getPrice()) + "₫", contentFont));
-            table.addCell(new Phrase(decimalFormat.format(orderDetail.getTotalMoney()) + "₫", contentFont));
-            index++;
-        }
+    @FunctionalInterface
+    private interface InvoiceWriter {
+        void write(Order order, List<OrderDetail> orderDetails) throws IOException;
     }
 }
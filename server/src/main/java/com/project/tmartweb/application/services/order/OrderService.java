@@ -5,11 +5,15 @@ import com.project.tmartweb.application.constant.MailTemplate;
 import com.project.tmartweb.application.repositories.*;
 import com.project.tmartweb.application.responses.Statistical;
 import com.project.tmartweb.application.responses.VNPayResponse;
-import com.project.tmartweb.application.services.cart.CartService;
 import com.project.tmartweb.application.services.coupon.CouponService;
 import com.project.tmartweb.application.services.email.IEmailService;
+import com.project.tmartweb.application.services.email.MailOutboxService;
+import com.project.tmartweb.application.services.notification.NotificationCreatedEvent;
 import com.project.tmartweb.application.services.payment.VNPayService;
-import com.project.tmartweb.application.services.product.ProductService;
+import com.project.tmartweb.application.services.product.ProductCache;
+import com.project.tmartweb.application.services.product.StockService;
+import com.project.tmartweb.application.services.statistics.RevenueRollupService;
+import com.project.tmartweb.application.services.statistics.RevenueStatisticsService;
 import com.project.tmartweb.application.services.user.UserService;
 import com.project.tmartweb.config.exceptions.InvalidParamException;
 import com.project.tmartweb.config.exceptions.NotFoundException;
@@ -17,13 +21,17 @@ import com.project.tmartweb.config.helpers.Calculator;
 import com.project.tmartweb.domain.dtos.CartDTO;
 import com.project.tmartweb.domain.dtos.OrderDTO;
 import com.project.tmartweb.domain.entities.*;
+import com.project.tmartweb.domain.enums.MailType;
 import com.project.tmartweb.domain.enums.OrderStatus;
 import com.project.tmartweb.domain.paginate.BasePagination;
+import com.project.tmartweb.domain.paginate.Cursor;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
+import jakarta.mail.internet.MimeMessage;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -31,6 +39,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import com.project.tmartweb.application.responses.RevenueByDate;
+import com.project.tmartweb.application.responses.RevenueByWeek;
 
 import com.project.tmartweb.application.responses.ProductSalesStatistical;
 import com.project.tmartweb.application.responses.CategorySalesStatistical;
@@ -48,16 +57,20 @@ import java.util.*;
 public class OrderService implements IOrderService {
     private final OrderRepository orderRepository;
     private final UserService userService;
-    private final CartService cartService;
+    private final CartRepository cartRepository;
     private final OrderDetailRepository orderDetailRepository;
-    private final CouponRepository couponRepository;
     private final CouponService couponService;
     private final ModelMapper mapper;
-    private final ProductService productService;
+    private final ProductCache productCache;
+    private final StockService stockService;
     private final ProductRepository productRepository;
     private final NotificationRepository notificationRepository;
     private final VNPayService vnpayService;
     private final IEmailService emailService;
+    private final MailOutboxService mailOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevenueRollupService revenueRollupService;
+    private final RevenueStatisticsService revenueStatisticsService;
 
     @Value("${link.order-details}")
     private String linkOrderDetails;
@@ -67,34 +80,37 @@ public class OrderService implements IOrderService {
     public Order insert(OrderDTO orderDTO) {
         Order order = mapper.map(orderDTO, Order.class);
         User user = userService.getById(orderDTO.getUserId());
-        Coupon coupon = orderDTO.getCouponId() == null ? null : couponService.useCoupon(orderDTO.getCouponId());
-        if (coupon != null) {
-            coupon.setQuantity(coupon.getQuantity() - 1);
-            couponRepository.save(coupon);
-        }
+        Coupon coupon = orderDTO.getCouponId() == null ? null : couponService.redeemCoupon(orderDTO.getCouponId());
         double discount = coupon == null ? 0 : coupon.getDiscount();
         order.setCreatedAt(new Timestamp(new Date(System.currentTimeMillis()).getTime()));
         orderRepository.save(order);
+        // Load toàn bộ sản phẩm và giỏ hàng bằng 1 truy vấn mỗi loại, các câu lệnh ghi được
+        // gom theo JDBC batch khi flush (hibernate.jdbc.batch_size)
+        List<CartDTO> cartItems = orderDTO.getCartItems();
+        Map<String, Product> products = findProducts(cartItems);
+        List<Cart> carts = findCarts(cartItems);
+        Map<String, Integer> quantities = new HashMap<>();
+        for (CartDTO cartDTO : cartItems) {
+            quantities.merge(cartDTO.getProductId(), cartDTO.getQuantity(), Integer::sum);
+        }
+        stockService.reserve(quantities);
         List<OrderDetail> orderDetails = new ArrayList<>();
-        for (CartDTO cartDTO : orderDTO.getCartItems()) {
-            Product product = productService.getById(cartDTO.getProductId());
-            if (product.getQuantity() < cartDTO.getQuantity()) {
-                throw new InvalidParamException("Số lượng sản phẩm trong kho không đủ",
-                        "Quantity not enough");
-            }
-            OrderDetail orderDetail = mapper.map(cartDTO, OrderDetail.class);
+        for (CartDTO cartDTO : cartItems) {
+            Product product = products.get(cartDTO.getProductId());
+            OrderDetail orderDetail = new OrderDetail();
+            orderDetail.setQuantity(cartDTO.getQuantity());
+            orderDetail.setClassify(cartDTO.getClassify());
             orderDetail.setProduct(product);
             orderDetail.setOrder(order);
             orderDetail.setPrice(product.getSalePrice());
             orderDetail.setTotalMoney(
                     Calculator.totalMoney(
                             product.getSalePrice(), cartDTO.getQuantity()));
-            orderDetails.add(orderDetailRepository.save(orderDetail));
-            Cart cart = cartService.getById(cartDTO.getId());
-            cartService.delete(cart);
-            product.setQuantity(product.getQuantity() - cartDTO.getQuantity());
-            productRepository.save(product);
+            orderDetails.add(orderDetail);
         }
+        orderDetailRepository.saveAll(orderDetails);
+        cartRepository.deleteAllInBatch(carts);
+        productCache.evict(products.keySet());
         order.setCoupon(coupon);
         order.setUser(user);
         order.setStatus(OrderStatus.PENDING);
@@ -104,6 +120,7 @@ public class OrderService implements IOrderService {
         notification.setContent("Đơn hàng " + order.getId() + " đã được tạo thành công. Bạn có thể theo dõi đơn hàng tại đây.");
         notification.setUser(user);
         notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(notification));
         order.setTotalMoney(Calculator.totalMoneyOrder(orderDetails, discount));
         return orderRepository.save(order);
     }
@@ -113,6 +130,7 @@ public class OrderService implements IOrderService {
     public Order update(UUID id, OrderDTO orderDTO) {
         try {
             Order order = getById(id);
+            OrderStatus previousStatus = order.getStatus();
             order.setStatus(orderDTO.getStatus());
             Notification notification = new Notification();
             notification.setUser(order.getUser());
@@ -134,18 +152,30 @@ public class OrderService implements IOrderService {
                 notification.setContent("Đơn hàng của bạn đã được giao thành công. " +
                         " Hãy đánh trải nghiệm, đánh giá sản phẩm và nếu có lỗi gì hãy liên hệ với chúng tôi ngay nhé."
                 );
-                this.sendMailShippedOrder(order);
+                mailOutboxService.enqueue(MailType.ORDER_SHIPPED, order.getId());
             }
             if (orderDTO.getStatus() == OrderStatus.CANCELLED) {
                 notification.setTitle("Đơn hàng đã hủy thành công.");
                 notification.setContent("Đơn hàng của bạn đã được hủy thành công.");
-                for (OrderDetail orderDetail : order.getOrderDetails()) {
-                    Product product = orderDetail.getProduct();
-                    product.setQuantity(product.getQuantity() + orderDetail.getQuantity());
-                    productRepository.save(product);
-                }
+            }
+            // Hoàn trả tồn kho một lần khi vào CANCELLED, giữ lại hàng khi đơn rời CANCELLED
+            Map<String, Integer> quantities = new HashMap<>();
+            for (OrderDetail orderDetail : order.getOrderDetails()) {
+                quantities.merge(orderDetail.getProduct().getId(), orderDetail.getQuantity(), Integer::sum);
+            }
+            stockService.applyTransition(quantities, previousStatus, orderDTO.getStatus());
+            updateSoldQuantity(order, previousStatus, orderDTO.getStatus());
+            revenueRollupService.applyTransition(order, previousStatus, orderDTO.getStatus());
+            // Tồn kho hoặc số lượng đã bán thay đổi -> xóa cache sản phẩm liên quan
+            if (orderDTO.getStatus() == OrderStatus.CANCELLED || previousStatus == OrderStatus.CANCELLED
+                    || (previousStatus != orderDTO.getStatus()
+                    && (previousStatus == OrderStatus.SHIPPED || orderDTO.getStatus() == OrderStatus.SHIPPED))) {
+                productCache.evict(order.getOrderDetails().stream()
+                        .map(orderDetail -> orderDetail.getProduct().getId())
+                        .toList());
             }
             notificationRepository.save(notification);
+            eventPublisher.publishEvent(new NotificationCreatedEvent(notification));
             if (orderDTO.getStatus() != OrderStatus.SHIPPED) {
                 // Gửi mail chỉ khi KHÔNG phải SHIPPED để tránh gửi 2 lần
             }
@@ -153,11 +183,55 @@ public class OrderService implements IOrderService {
                 order.setAddress(orderDTO.getAddress());
             }
             return orderRepository.save(order);
+        } catch (InvalidParamException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private Map<String, Product> findProducts(List<CartDTO> cartItems) {
+        Set<String> productIds = new HashSet<>();
+        for (CartDTO cartDTO : cartItems) {
+            productIds.add(cartDTO.getProductId());
+        }
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+        if (products.size() != productIds.size()) {
+            throw new NotFoundException("Product not found");
+        }
+        return products;
+    }
+
+    private List<Cart> findCarts(List<CartDTO> cartItems) {
+        Set<UUID> cartIds = new HashSet<>();
+        for (CartDTO cartDTO : cartItems) {
+            cartIds.add(cartDTO.getId());
+        }
+        List<Cart> carts = cartRepository.findAllById(cartIds);
+        if (carts.size() != cartIds.size()) {
+            throw new NotFoundException("Giỏ hàng không tồn tại!", "Cart not found");
+        }
+        return carts;
+    }
+
+    // Cập nhật sold_quantity khi đơn hàng chuyển vào / ra khỏi trạng thái SHIPPED
+    private void updateSoldQuantity(Order order, OrderStatus previousStatus, OrderStatus status) {
+        int sign;
+        if (status == OrderStatus.SHIPPED && previousStatus != OrderStatus.SHIPPED) {
+            sign = 1;
+        } else if (previousStatus == OrderStatus.SHIPPED && status != OrderStatus.SHIPPED) {
+            sign = -1;
+        } else {
+            return;
+        }
+        for (OrderDetail orderDetail : order.getOrderDetails()) {
+            productRepository.addSoldQuantity(orderDetail.getProduct().getId(), sign * orderDetail.getQuantity());
+        }
+    }
+
     @Override
     public void delete(Order order) {
 
@@ -215,7 +289,7 @@ public class OrderService implements IOrderService {
         Order order = this.insert(orderDTO);
         String urlPayment = "";
         try {
-            this.sendMailCreateOrder(order);
+            mailOutboxService.enqueue(MailType.ORDER_CREATED, order.getId());
             if (order.getPaymentMethod().equals("VNPAY")) {
                 urlPayment =
                         vnpayService.createOrder((int) order.getTotalMoney(), String.valueOf(order.getId()), request);
@@ -243,15 +317,19 @@ public class OrderService implements IOrderService {
 
     @Override
     public List<Statistical> statisticals(int year) {
+        return revenueStatisticsService.monthly(year);
+    }
 
-        return List.of();
+    @Override
+    public List<RevenueByWeek> weeklyStatisticals(int year) {
+        return revenueStatisticsService.weekly(year);
     }
 
 
 
     @Override
     public List<RevenueByDate> getDailyStats(Timestamp startDate, Timestamp endDate) {
-        return orderRepository.statisticalByDay(startDate, endDate);
+        return revenueRollupService.getDailyStats(startDate, endDate);
     }
 
     // FIX: XÓA getWeeklyStats
@@ -265,17 +343,16 @@ public class OrderService implements IOrderService {
 
     @Override
     public List<ProductSalesStatistical> getProductSalesStats(Timestamp startDate, Timestamp endDate) {
-        // PhÆ°Æ¡ng thá»©c nÃ y náº±m á»Ÿ OrderDetailRepository
-        return orderDetailRepository.statisticalByProduct(startDate, endDate);
+        return revenueRollupService.getProductSalesStats(startDate, endDate);
     }
 
     @Override
     public List<CategorySalesStatistical> getCategorySalesStats(Timestamp startDate, Timestamp endDate) {
-        return orderDetailRepository.statisticalByCategory(startDate, endDate);
+        return revenueRollupService.getCategorySalesStats(startDate, endDate);
     }
 
     @Override
-    public void sendMailCreateOrder(Order order) {
+    public MimeMessage prepareMailCreateOrder(Order order) {
         DecimalFormat decimalFormat = new DecimalFormat("#,###");
         DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
         String mailTo = order.getUser().getEmail();
@@ -314,11 +391,11 @@ public class OrderService implements IOrderService {
             context.put("ORDER_COUPON_CODE", couponCode);
         }
         context.put("ORDER_TOTAL_NOT_DISCOUNT", decimalFormat.format(totalMoneyNotDiscount));
-        emailService.sendTemplateMail(mailTo, subject, MailTemplate.ORDER, context);
+        return emailService.prepareTemplateMail(mailTo, subject, MailTemplate.ORDER, context);
     }
 
     @Override
-    public void sendMailShippedOrder(Order order) {
+    public MimeMessage prepareMailShippedOrder(Order order) {
         DecimalFormat decimalFormat = new DecimalFormat("#,###");
         DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
         String mailTo = order.getUser().getEmail();
@@ -350,7 +427,7 @@ public class OrderService implements IOrderService {
             context.put("ORDER_COUPON_CODE", couponCode);
         }
         context.put("ORDER_TOTAL_NOT_DISCOUNT", decimalFormat.format(totalMoneyNotDiscount));
-        emailService.sendTemplateMail(mailTo, subject, MailTemplate.SHIPPED, context);
+        return emailService.prepareTemplateMail(mailTo, subject, MailTemplate.SHIPPED, context);
     }
 
     @Override
@@ -367,4 +444,26 @@ public class OrderService implements IOrderService {
         BasePagination<Order, OrderRepository> pagination = new BasePagination<>();
         return pagination.paginate(page, perPage, orders);
     }
+
+    @Override
+    public PaginationDTO<Order> getAllByFilter(Timestamp startDate,
+                                               Timestamp endDate,
+                                               OrderStatus status,
+                                               String cursor,
+                                               Integer perPage,
+                                               boolean withTotal) {
+        if (startDate != null && endDate == null) {
+            endDate = new Timestamp(System.currentTimeMillis());
+        }
+        int size = BasePagination.perPageOrDefault(perPage);
+        Cursor after = Cursor.decode(cursor);
+        List<Order> orders = after == null
+                ? orderRepository.findAllByFilterFirstPage(startDate, endDate, status, PageRequest.of(0, size + 1))
+                : orderRepository.findAllByFilterAfter(startDate, endDate, status,
+                after.getCreatedAt(), after.getUuid(), PageRequest.of(0, size + 1));
+        Long total = withTotal ? orderRepository.countByFilter(startDate, endDate, status) : null;
+        BasePagination<Order, OrderRepository> pagination = new BasePagination<>();
+        return pagination.paginate(orders, size,
+                order -> new Cursor(order.getCreatedAt(), order.getId().toString()), total);
+    }
 }
\ No newline at end of file
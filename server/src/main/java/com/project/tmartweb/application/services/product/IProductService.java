@@ -4,6 +4,7 @@ import com.project.tmartweb.application.services.base.IBaseService;
 import com.project.tmartweb.application.services.base.IBaseServiceMultiple;
 import com.project.tmartweb.domain.dtos.ProductDTO;
 import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.enums.SearchMode;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 
 import java.util.UUID;
@@ -11,6 +12,8 @@ import java.util.UUID;
 public interface IProductService
         extends IBaseService<Product, ProductDTO, String>,
         IBaseServiceMultiple<Product, ProductDTO, String> {
+    PaginationDTO<Product> getAll(String cursor, Integer perPage, boolean withTotal);
+
     PaginationDTO<Product> getAllProductsByCategory(UUID categoryId, Integer page, Integer perPage);
 
     PaginationDTO<Product> getAllDeleted(Integer page, Integer perPage);
@@ -20,7 +23,7 @@ public interface IProductService
     PaginationDTO<Product> getAllByDiscount(Integer page, Integer perPage);
 
     PaginationDTO<Product> getAllBySearch(
-            String keyword, String direction, String price,
+            String keyword, String direction, String price, SearchMode mode,
             Integer page, Integer perPage);
 
     PaginationDTO<Product> getAllByFilter(
@@ -0,0 +1,41 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.constant.CacheName;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Xóa cache sản phẩm khi dữ liệu thay đổi ngoài ProductService (tồn kho, hình ảnh, ...).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+    private final CacheManager cacheManager;
+
+    public void evict(Collection<String> productIds) {
+        Cache product = cacheManager.getCache(CacheName.PRODUCT);
+        if (product != null) {
+            for (String productId : productIds) {
+                product.evict(productId);
+            }
+        }
+        Cache products = cacheManager.getCache(CacheName.PRODUCTS);
+        if (products != null) {
+            products.clear();
+        }
+    }
+
+    // Dùng khi không biết những sản phẩm nào bị thay đổi
+    public void evictAll() {
+        for (String cacheName : new String[]{CacheName.PRODUCT, CacheName.PRODUCTS}) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.repositories.ProductRepository;
+import com.project.tmartweb.domain.entities.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index trong bộ nhớ cho tiêu đề / mô tả sản phẩm.
+ * Hỗ trợ tìm kiếm không dấu tiếng Việt, tìm theo tiền tố và xếp hạng theo độ liên quan (TF-IDF).
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    // term -> (productId -> trọng số của term trong sản phẩm)
+    private final ConcurrentSkipListMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+    // productId -> các term đã index, dùng khi xóa / cập nhật sản phẩm
+    private final Map<String, Set<String>> termsByProduct = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready = false;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int page = 0;
+        Page<Product> products;
+        do {
+            products = productRepository.findAllByDeleted(
+                    false, PageRequest.of(page++, REBUILD_BATCH_SIZE, Sort.by("id")));
+            for (Product product : products.getContent()) {
+                index(product);
+            }
+        } while (products.hasNext());
+        ready = true;
+        log.info("Indexed {} products for search in {} ms",
+                termsByProduct.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product product) {
+        if (Boolean.TRUE.equals(product.getDeleted())) {
+            remove(product.getId());
+            return;
+        }
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, product.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        writeLock.lock();
+        try {
+            removeTerms(product.getId());
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new ConcurrentHashMap<>())
+                        .put(product.getId(), entry.getValue());
+            }
+            termsByProduct.put(product.getId(), weights.keySet());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        writeLock.lock();
+        try {
+            removeTerms(productId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Trả về id sản phẩm khớp với tất cả từ khóa, sắp xếp theo độ liên quan giảm dần.
+     * Mỗi từ khóa khớp chính xác hoặc là tiền tố của một term trong index.
+     */
+    public List<String> search(String keyword) {
+        List<String> tokens = tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int documentCount = Math.max(termsByProduct.size(), 1);
+        Map<String, Float> scores = null;
+        for (String token : tokens) {
+            Map<String, Float> tokenScores = new HashMap<>();
+            NavigableMap<String, Map<String, Float>> matches =
+                    postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<String, Float>> match : matches.entrySet()) {
+                Map<String, Float> documents = match.getValue();
+                float idf = (float) Math.log(1 + (double) documentCount / Math.max(documents.size(), 1));
+                float boost = match.getKey().equals(token) ? 1f : PREFIX_PENALTY;
+                for (Map.Entry<String, Float> document : documents.entrySet()) {
+                    tokenScores.merge(document.getKey(), document.getValue() * idf * boost, Math::max);
+                }
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                for (Map.Entry<String, Float> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        List<Map.Entry<String, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Float>comparingByValue(Collections.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()));
+        List<String> productIds = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Float> entry : ranked) {
+            productIds.add(entry.getKey());
+        }
+        return productIds;
+    }
+
+    /**
+     * Chuẩn hóa về chữ thường không dấu: "Điện Thoại" -> "dien thoai".
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                         .replace('đ', 'd')
+                         .replace('Đ', 'D')
+                         .toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void removeTerms(String productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            postings.computeIfPresent(term, (key, documents) -> {
+                documents.remove(productId);
+                return documents.isEmpty() ? null : documents;
+            });
+        }
+    }
+}
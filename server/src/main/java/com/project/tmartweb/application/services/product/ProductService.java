@@ -1,6 +1,6 @@
 package com.project.tmartweb.application.services.product;
 
-import com.project.tmartweb.application.repositories.OrderDetailRepository;
+import com.project.tmartweb.application.constant.CacheName;
 import com.project.tmartweb.application.repositories.ProductRepository;
 import com.project.tmartweb.application.services.category.CategoryService;
 import com.project.tmartweb.config.exceptions.InvalidParamException;
@@ -9,19 +9,28 @@ import com.project.tmartweb.domain.dtos.ProductDTO;
 import com.project.tmartweb.domain.entities.Category;
 import com.project.tmartweb.domain.entities.Product;
 import com.project.tmartweb.domain.entities.ProductIdGenerator;
+import com.project.tmartweb.domain.enums.SearchMode;
 import com.project.tmartweb.domain.paginate.BasePagination;
+import com.project.tmartweb.domain.paginate.Cursor;
 import com.project.tmartweb.domain.paginate.Pagination;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
 import com.project.tmartweb.utils.PaginationUtils;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,16 +39,19 @@ import java.util.UUID;
 public class ProductService implements IProductService {
     private final ProductRepository productRepository;
     private final CategoryService categoryService;
-    private final OrderDetailRepository orderDetailRepository;
     private final ModelMapper mapper;
     private final ProductIdGenerator productIdGenerator;
     private final PaginationUtils paginationUtils;
+    private final ProductSearchIndex productSearchIndex;
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCTS,
+            key = "'category:' + #categoryId + ':' + #page + ':' + #perPage")
     public PaginationDTO<Product> getAllProductsByCategory(UUID categoryId, Integer page, Integer perPage) {
         PageRequest pageRequest = PageRequest.of(page, perPage, Sort.by("createdAt").descending());
         Page<Product> pageData = productRepository.findAllByCategory_IdAndDeleted(categoryId, false, pageRequest);
-        setSoldQuantity(pageData.getContent());
+        initializeForCache(pageData.getContent());
         BasePagination<Product, ProductRepository> pagination = new BasePagination<>(productRepository);
         return pagination.paginate(page, perPage, pageData);
     }
@@ -50,35 +62,42 @@ public class ProductService implements IProductService {
             List<Product> products = productRepository.findAllByDeleted(
                     true,
                     Sort.by("createdAt").descending());
-            setSoldQuantity(products);
             return new PaginationDTO<>(products, null);
         }
         Page<Product> pageData = productRepository.findAllByDeleted(
                 true,
                 PageRequest.of(page, perPage, Sort.by("createdAt").descending()));
-        setSoldQuantity(pageData.getContent());
         BasePagination<Product, ProductRepository> pagination = new BasePagination<>(productRepository);
         return pagination.paginate(page, perPage, pageData);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCTS, key = "'best-seller:' + #page + ':' + #perPage")
     public PaginationDTO<Product> getAllBySoldQuantity(Integer page, Integer perPage) {
-        Page<Product> products = productRepository.findAllBySoldQuantity(PageRequest.of(page, perPage));
-        setSoldQuantity(products.getContent());
+        Page<Product> products = productRepository.findAllBestSeller(PageRequest.of(page, perPage));
+        initializeForCache(products.getContent());
         BasePagination<Product, ProductRepository> pagination = new BasePagination<>();
         return pagination.paginate(page, perPage, products);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCTS, key = "'sale:' + #page + ':' + #perPage")
     public PaginationDTO<Product> getAllByDiscount(Integer page, Integer perPage) {
         Page<Product> products = productRepository.findAllByDiscount(PageRequest.of(page, perPage));
-        setSoldQuantity(products.getContent());
+        initializeForCache(products.getContent());
         BasePagination<Product, ProductRepository> pagination = new BasePagination<>();
         return pagination.paginate(page, perPage, products);
     }
 
     @Override
-    public PaginationDTO<Product> getAllBySearch(String keyword, String feedback, String price, Integer page, Integer perPage) {
+    public PaginationDTO<Product> getAllBySearch(String keyword, String feedback, String price, SearchMode mode,
+                                                 Integer page, Integer perPage) {
+        // INDEX: xếp hạng theo độ liên quan nên bỏ qua sắp xếp theo đánh giá / giá
+        if (mode == SearchMode.INDEX && productSearchIndex.isReady()) {
+            return searchByIndex(keyword, page, perPage);
+        }
         Page<Product> products = productRepository.findAllBySearch(
                 keyword, feedback, price,
                 PageRequest.of(page, perPage));
@@ -102,12 +121,12 @@ public class ProductService implements IProductService {
         Page<Product> products = productRepository.findAllByFilter(
                 keyword, productIdQuery, categoryId, isStock,
                 PageRequest.of(page, perPage, Sort.by(orders)));
-        setSoldQuantity(products.getContent());
         BasePagination<Product, ProductRepository> pagination = new BasePagination<>();
         return pagination.paginate(page, perPage, products);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheName.PRODUCTS, allEntries = true)
     public Product insert(ProductDTO productDTO) {
         Category category = categoryService.getById(productDTO.getCategoryId());
         Product product = mapper.map(productDTO, Product.class);
@@ -126,12 +145,18 @@ public class ProductService implements IProductService {
         product.setId(productIdGenerator.generateNextId());
         product.setDiscount(Math.round(discount));
         product.setCategory(category);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.index(saved);
+        return saved;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheName.PRODUCT, key = "#id"),
+            @CacheEvict(cacheNames = CacheName.PRODUCTS, allEntries = true)
+    })
     public Product update(String id, ProductDTO productDTO) {
-        Product product = getById(id);
+        Product product = findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
         Category category = categoryService.getById(productDTO.getCategoryId());
         mapper.map(productDTO, product);
         double salePrice = product.getSalePrice();
@@ -148,40 +173,69 @@ public class ProductService implements IProductService {
         }
         product.setDiscount(Math.round(discount));
         product.setCategory(category);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.index(saved);
+        return saved;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheName.PRODUCT, key = "#product.id"),
+            @CacheEvict(cacheNames = CacheName.PRODUCTS, allEntries = true)
+    })
+    @Transactional
     public void delete(Product product) {
-        product.setDeleted(true);
-        productRepository.save(product);
+        // product có thể là bản trong cache, không save lại cả entity
+        productRepository.markDeleted(product.getId());
+        productSearchIndex.remove(product.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCTS, key = "'all:' + #page + ':' + #perPage")
     public PaginationDTO<Product> getAll(Integer page, Integer perPage) {
         if (page == null || perPage == null) {
             List<Product> products = productRepository.findAllByDeleted(false, Sort.by("createdAt").descending());
-            setSoldQuantity(products);
+            initializeForCache(products);
             return new PaginationDTO<>(products, null);
         }
         Page<Product> pageData = productRepository.findAllByDeleted(
                 false,
                 PageRequest.of(page, perPage, Sort.by("createdAt").descending()));
-        setSoldQuantity(pageData.getContent());
+        initializeForCache(pageData.getContent());
         Pagination pagination = new Pagination(page, perPage, pageData.getTotalPages() - 1,
                 pageData.getTotalElements());
         return new PaginationDTO<>(pageData.getContent(), pagination);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCTS,
+            key = "'cursor:' + #cursor + ':' + #perPage + ':' + #withTotal")
+    public PaginationDTO<Product> getAll(String cursor, Integer perPage, boolean withTotal) {
+        int size = BasePagination.perPageOrDefault(perPage);
+        Cursor after = Cursor.decode(cursor);
+        List<Product> products = after == null
+                ? productRepository.findAllActiveFirstPage(PageRequest.of(0, size + 1))
+                : productRepository.findAllActiveAfter(after.getCreatedAt(), after.getId(), PageRequest.of(0, size + 1));
+        initializeForCache(products);
+        Long total = withTotal ? productRepository.countByDeleted(false) : null;
+        BasePagination<Product, ProductRepository> pagination = new BasePagination<>();
+        return pagination.paginate(products, size,
+                product -> new Cursor(product.getCreatedAt(), product.getId()), total);
+    }
+
     @Override
     public Optional<Product> findById(String id) {
         return productRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheName.PRODUCT, key = "#id")
     public Product getById(String id) {
         Product product = findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
-        setSoldQuantity(List.of(product)); // Cập nhật số lượng đã bán (chỉ tính đơn SHIPPED)
+        initializeForCache(List.of(product));
         return product;
     }
 
@@ -200,12 +254,32 @@ public class ProductService implements IProductService {
         return 0;
     }
 
-    // ✅ FIXED METHOD: chỉ tính số lượng bán cho đơn hàng đã giao (SHIPPED)
-    private void setSoldQuantity(List<Product> products) {
+    private PaginationDTO<Product> searchByIndex(String keyword, Integer page, Integer perPage) {
+        List<String> productIds = productSearchIndex.search(keyword);
+        int from = Math.min(page * perPage, productIds.size());
+        int to = Math.min(from + perPage, productIds.size());
+        List<String> pageIds = productIds.subList(from, to);
+        Map<String, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(pageIds)) {
+            productsById.put(product.getId(), product);
+        }
+        List<Product> products = new ArrayList<>();
+        for (String productId : pageIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        int totalPages = (productIds.size() + perPage - 1) / perPage;
+        Pagination pagination = new Pagination(page, perPage, totalPages - 1, (long) productIds.size());
+        return new PaginationDTO<>(products, pagination);
+    }
+
+    // Load sẵn các collection lazy để sản phẩm trong cache vẫn serialize được khi session đã đóng
+    private void initializeForCache(List<Product> products) {
         for (Product product : products) {
-            // Sử dụng phương thức mới trong OrderDetailRepository
-            Long soldQuantity = orderDetailRepository.sumSoldQuantityByProduct(product);
-            product.setSoldQuantity(soldQuantity != null ? soldQuantity.intValue() : 0);
+            Hibernate.initialize(product.getImageProducts());
+            Hibernate.initialize(product.getFeedbacks());
         }
     }
 }
@@ -0,0 +1,34 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tính lại cột sold_quantity từ order_detail để sửa các sai lệch
+ * (dữ liệu cũ, cập nhật thủ công trong DB, ...).
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class SoldQuantityReconcileJob {
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${product.sold-quantity.reconcile-cron}")
+    @Transactional
+    public void reconcile() {
+        int updated = productRepository.reconcileSoldQuantities();
+        if (updated > 0) {
+            // Cache là transaction-aware nên chỉ bị xóa sau khi commit
+            productCache.evictAll();
+            log.info("Reconciled sold quantity of {} products", updated);
+        }
+    }
+}
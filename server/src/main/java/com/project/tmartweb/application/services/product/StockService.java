@@ -0,0 +1,80 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.config.exceptions.InvalidParamException;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Giữ / hoàn trả tồn kho bằng câu lệnh UPDATE có điều kiện, database đảm bảo không bán vượt số lượng.
+ * Không đọc rồi ghi lại Product.quantity nên các đơn hàng đồng thời không ghi đè lên nhau.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockService {
+    private static final String RESERVE_SQL =
+            "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET quantity = quantity + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Trừ tồn kho cho tất cả sản phẩm (productId -> số lượng) trong một JDBC batch.
+     * Nếu một sản phẩm không đủ hàng thì ném InvalidParamException và transaction hiện tại rollback toàn bộ.
+     */
+    @Transactional
+    public void reserve(Map<String, Integer> quantities) {
+        List<Map.Entry<String, Integer>> entries = sortedById(quantities);
+        int[][] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setString(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                if (rows == 0) {
+                    throw new InvalidParamException("Số lượng sản phẩm trong kho không đủ",
+                            "Quantity not enough");
+                }
+            }
+        }
+    }
+
+    @Transactional
+    public void release(Map<String, Integer> quantities) {
+        List<Map.Entry<String, Integer>> entries = sortedById(quantities);
+        jdbcTemplate.batchUpdate(RELEASE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setString(2, entry.getKey());
+        });
+    }
+
+    /**
+     * Cập nhật tồn kho khi trạng thái đơn thay đổi: vào CANCELLED thì hoàn trả, rời CANCELLED thì giữ lại hàng.
+     * Đơn rời CANCELLED khi kho không còn đủ hàng sẽ bị từ chối bằng InvalidParamException.
+     */
+    @Transactional
+    public void applyTransition(Map<String, Integer> quantities, OrderStatus previousStatus, OrderStatus status) {
+        if (previousStatus == status) {
+            return;
+        }
+        if (status == OrderStatus.CANCELLED) {
+            release(quantities);
+        } else if (previousStatus == OrderStatus.CANCELLED) {
+            reserve(quantities);
+        }
+    }
+
+    // Luôn khóa các dòng theo cùng một thứ tự để hai đơn hàng đồng thời không deadlock
+    private List<Map.Entry<String, Integer>> sortedById(Map<String, Integer> quantities) {
+        return new ArrayList<>(new TreeMap<>(quantities).entrySet());
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.tmartweb.application.services.statistics;
+
+import com.project.tmartweb.application.repositories.DailyCategorySalesRepository;
+import com.project.tmartweb.application.repositories.DailyProductSalesRepository;
+import com.project.tmartweb.application.repositories.DailyRevenueRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Dựng lại các bảng thống kê theo ngày từ orders / order_detail.
+ * <p>
+ * Xóa hết rồi tính lại trong một transaction: sửa các sai lệch (sản phẩm đổi danh mục, dữ liệu sửa tay)
+ * và bỏ các dòng đã về 0 do đơn hàng rời khỏi SHIPPED. Dashboard vẫn đọc dữ liệu cũ cho tới khi commit.
+ */
+@Component
+@Log4j2
+public class RevenueRollupJob {
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final DailyProductSalesRepository dailyProductSalesRepository;
+    private final DailyCategorySalesRepository dailyCategorySalesRepository;
+    private final RevenueStatisticsService revenueStatisticsService;
+    private final Timer rebuildTimer;
+
+    public RevenueRollupJob(DailyRevenueRepository dailyRevenueRepository,
+                            DailyProductSalesRepository dailyProductSalesRepository,
+                            DailyCategorySalesRepository dailyCategorySalesRepository,
+                            RevenueStatisticsService revenueStatisticsService,
+                            MeterRegistry meterRegistry) {
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.dailyProductSalesRepository = dailyProductSalesRepository;
+        this.dailyCategorySalesRepository = dailyCategorySalesRepository;
+        this.revenueStatisticsService = revenueStatisticsService;
+        this.rebuildTimer = Timer.builder("statistics.rollup.rebuild")
+                .description("Thời gian dựng lại các bảng thống kê theo ngày")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${statistics.rollup.rebuild-cron}")
+    @Transactional
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            dailyRevenueRepository.deleteAllRows();
+            dailyProductSalesRepository.deleteAllRows();
+            dailyCategorySalesRepository.deleteAllRows();
+            int days = dailyRevenueRepository.rebuild();
+            int productRows = dailyProductSalesRepository.rebuild();
+            int categoryRows = dailyCategorySalesRepository.rebuild();
+            revenueStatisticsService.evictAll();
+            log.info("Rebuilt revenue rollups: {} days, {} product rows, {} category rows",
+                    days, productRows, categoryRows);
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.tmartweb.application.services.statistics;
+
+import com.project.tmartweb.application.repositories.DailyCategorySalesRepository;
+import com.project.tmartweb.application.repositories.DailyProductSalesRepository;
+import com.project.tmartweb.application.repositories.DailyRevenueRepository;
+import com.project.tmartweb.application.responses.CategorySalesStatistical;
+import com.project.tmartweb.application.responses.ProductSalesStatistical;
+import com.project.tmartweb.application.responses.RevenueByDate;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Thống kê doanh thu đọc từ các bảng cộng dồn theo ngày (daily_revenue, daily_product_sales,
+ * daily_category_sales) thay vì group toàn bộ đơn hàng SHIPPED mỗi lần mở dashboard.
+ * <p>
+ * Các bảng được cộng / trừ trong cùng transaction khi đơn hàng chuyển vào / ra khỏi SHIPPED,
+ * RevenueRollupJob dựng lại toàn bộ mỗi đêm. Khoảng thời gian được làm tròn theo ngày.
+ */
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupService {
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final DailyProductSalesRepository dailyProductSalesRepository;
+    private final DailyCategorySalesRepository dailyCategorySalesRepository;
+    private final RevenueStatisticsService revenueStatisticsService;
+
+    @Transactional
+    public void applyTransition(Order order, OrderStatus previousStatus, OrderStatus status) {
+        int sign;
+        if (status == OrderStatus.SHIPPED && previousStatus != OrderStatus.SHIPPED) {
+            sign = 1;
+        } else if (previousStatus == OrderStatus.SHIPPED && status != OrderStatus.SHIPPED) {
+            sign = -1;
+        } else {
+            return;
+        }
+        dailyRevenueRepository.addOrder(order.getId(), sign);
+        dailyProductSalesRepository.addOrder(order.getId(), sign);
+        dailyCategorySalesRepository.addOrder(order.getId(), sign);
+        // Cache là transaction-aware nên chỉ bị xóa sau khi commit
+        revenueStatisticsService.evict(order.getCreatedAt().toLocalDateTime().toLocalDate());
+    }
+
+    public List<RevenueByDate> getDailyStats(Timestamp startDate, Timestamp endDate) {
+        return dailyRevenueRepository.findAllInRange(toDate(startDate), toDate(endDate)).stream()
+                .map(dailyRevenue -> new RevenueByDate(Date.valueOf(dailyRevenue.getDay()),
+                        dailyRevenue.getTotalMoney()))
+                .toList();
+    }
+
+    public List<ProductSalesStatistical> getProductSalesStats(Timestamp startDate, Timestamp endDate) {
+        return dailyProductSalesRepository.statisticalByProduct(toDate(startDate), toDate(endDate));
+    }
+
+    public List<CategorySalesStatistical> getCategorySalesStats(Timestamp startDate, Timestamp endDate) {
+        return dailyCategorySalesRepository.statisticalByCategory(toDate(startDate), toDate(endDate));
+    }
+
+    private LocalDate toDate(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().toLocalDate();
+    }
+}
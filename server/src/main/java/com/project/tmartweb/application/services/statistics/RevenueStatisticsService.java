@@ -0,0 +1,178 @@
+package com.project.tmartweb.application.services.statistics;
+
+import com.project.tmartweb.application.constant.CacheName;
+import com.project.tmartweb.application.repositories.DailyRevenueRepository;
+import com.project.tmartweb.application.responses.RevenueByWeek;
+import com.project.tmartweb.application.responses.RevenueSummary;
+import com.project.tmartweb.application.responses.Statistical;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Doanh thu, số đơn và giá trị trung bình mỗi đơn theo tháng / tuần ISO của một năm, đọc từ daily_revenue.
+ * <p>
+ * Mỗi kỳ được tính song song trên một pool giới hạn (statistics.parallelism) để không chiếm hết connection pool.
+ * Kỳ đã kết thúc được cache (hết hạn theo revenue-periods), chỉ kỳ hiện tại được tính lại mỗi lần.
+ * RevenueRollupService / RevenueRollupJob xóa cache khi số liệu của kỳ thay đổi.
+ * <p>
+ * Mỗi entry mang số thứ tự cập nhật tại lúc bắt đầu đọc. Sau khi transaction thay đổi số liệu commit, kỳ bị
+ * ảnh hưởng được gắn số mới hơn, nên kết quả đọc từ dữ liệu cũ mà put vào sau lệnh xóa cache cũng bị bỏ qua.
+ */
+@Service
+public class RevenueStatisticsService {
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final CacheManager cacheManager;
+    private final ExecutorService executor;
+
+    private final AtomicLong updates = new AtomicLong();
+    // Số thứ tự cập nhật gần nhất của từng kỳ, entry cũ hơn số này không còn dùng được
+    private final Map<String, Long> updatedAt = new ConcurrentHashMap<>();
+    private volatile long allUpdatedAt;
+
+    public RevenueStatisticsService(DailyRevenueRepository dailyRevenueRepository,
+                                    CacheManager cacheManager,
+                                    @Value("${statistics.parallelism}") int parallelism) {
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.cacheManager = cacheManager;
+        this.executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("Statistics-"));
+    }
+
+    public List<Statistical> monthly(int year) {
+        List<Supplier<Statistical>> partitions = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            YearMonth yearMonth = YearMonth.of(year, month);
+            partitions.add(() -> period(monthKey(yearMonth), yearMonth.atDay(1), yearMonth.atEndOfMonth(),
+                    summary -> new Statistical(yearMonth.getMonthValue(), year, summary.getTotalMoney(),
+                            summary.getOrderCount(), averageBasket(summary)),
+                    Statistical.class));
+        }
+        return computeAll(partitions);
+    }
+
+    public List<RevenueByWeek> weekly(int year) {
+        int weeks = LocalDate.of(year, 12, 28).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        LocalDate firstMonday = LocalDate.of(year, 1, 4).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<Supplier<RevenueByWeek>> partitions = new ArrayList<>();
+        for (int week = 1; week <= weeks; week++) {
+            int weekOfYear = week;
+            LocalDate start = firstMonday.plusWeeks(week - 1);
+            partitions.add(() -> period(weekKey(year, weekOfYear), start, start.plusDays(6),
+                    summary -> new RevenueByWeek(year, weekOfYear, summary.getTotalMoney(),
+                            summary.getOrderCount(), averageBasket(summary)),
+                    RevenueByWeek.class));
+        }
+        return computeAll(partitions);
+    }
+
+    // Số liệu của ngày thay đổi -> xóa tháng và tuần chứa ngày đó
+    public void evict(LocalDate day) {
+        String monthKey = monthKey(YearMonth.from(day));
+        String weekKey = weekKey(day.get(IsoFields.WEEK_BASED_YEAR), day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        afterCommit(() -> {
+            long update = updates.incrementAndGet();
+            updatedAt.put(monthKey, update);
+            updatedAt.put(weekKey, update);
+        });
+        Cache cache = cacheManager.getCache(CacheName.REVENUE_PERIODS);
+        if (cache != null) {
+            cache.evict(monthKey);
+            cache.evict(weekKey);
+        }
+    }
+
+    public void evictAll() {
+        afterCommit(() -> allUpdatedAt = updates.incrementAndGet());
+        Cache cache = cacheManager.getCache(CacheName.REVENUE_PERIODS);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> List<T> computeAll(List<Supplier<T>> partitions) {
+        List<CompletableFuture<T>> futures = partitions.stream()
+                .map(partition -> CompletableFuture.supplyAsync(partition, executor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private <T> T period(String key, LocalDate start, LocalDate end,
+                         Function<RevenueSummary, T> mapper, Class<T> type) {
+        LocalDate today = LocalDate.now();
+        if (start.isAfter(today)) {
+            return mapper.apply(new RevenueSummary(0.0, 0L));
+        }
+        boolean closed = end.isBefore(today);
+        Cache cache = closed ? cacheManager.getCache(CacheName.REVENUE_PERIODS) : null;
+        long update = updates.get();
+        CachedPeriod cached = cache == null ? null : cache.get(key, CachedPeriod.class);
+        if (cached != null && cached.getUpdate() >= Math.max(updatedAt.getOrDefault(key, 0L), allUpdatedAt)) {
+            return type.cast(cached.getValue());
+        }
+        T result = mapper.apply(dailyRevenueRepository.summarize(start, end));
+        if (cache != null) {
+            cache.put(key, new CachedPeriod(update, result));
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Double averageBasket(RevenueSummary summary) {
+        return summary.getOrderCount() == 0 ? 0.0 : summary.getTotalMoney() / summary.getOrderCount();
+    }
+
+    private String monthKey(YearMonth yearMonth) {
+        return "M:" + yearMonth;
+    }
+
+    private String weekKey(int weekBasedYear, int week) {
+        return "W:" + weekBasedYear + "-" + week;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedPeriod {
+        private final long update;
+        private final Object value;
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.tmartweb.application.services.token;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter cho SHA-256 (Base64) của token, an toàn khi nhiều thread cùng đọc / ghi.
+ * <p>
+ * Digest đã phân bố đều nên lấy luôn hai số 64 bit đầu làm hai hàm băm và sinh k vị trí bằng double hashing.
+ * mightContain trả về false thì chắc chắn token chưa bị thu hồi.
+ */
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String digest) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(digest));
+        long hash1 = buffer.getLong();
+        long hash2 = buffer.getLong();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << index;
+            bits.getAndAccumulate((int) (index >>> 6), mask, (current, bit) -> current | bit);
+        }
+    }
+
+    public boolean mightContain(String digest) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(digest));
+        long hash1 = buffer.getLong();
+        long hash2 = buffer.getLong();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bits.length() * 8L;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+}
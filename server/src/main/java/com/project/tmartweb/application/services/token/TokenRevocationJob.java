@@ -0,0 +1,74 @@
+package com.project.tmartweb.application.services.token;
+
+import com.project.tmartweb.application.repositories.TokenRepository;
+import com.project.tmartweb.application.responses.RevokedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Đồng bộ TokenRevocationService với bảng tokens.
+ * <p>
+ * refresh chỉ đọc các token bị thu hồi sau lần đọc trước (theo revoked_at), lùi lại một khoảng để không bỏ sót
+ * các dòng commit chậm hoặc lệch giờ giữa các instance. rebuild xóa token hết hạn và nạp lại toàn bộ.
+ */
+@Component
+@Log4j2
+public class TokenRevocationJob {
+    private static final long OVERLAP_MILLIS = 60_000;
+
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final Timer rebuildTimer;
+
+    private volatile long watermark;
+
+    public TokenRevocationJob(TokenRepository tokenRepository,
+                              TokenRevocationService tokenRevocationService,
+                              MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.rebuildTimer = Timer.builder("token.revocation.rebuild")
+                .description("Thời gian nạp lại danh sách token bị thu hồi")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.refresh-interval}")
+    public void refresh() {
+        Timestamp since = new Timestamp(Math.max(0, watermark - OVERLAP_MILLIS));
+        List<RevokedToken> tokens = tokenRepository.findRevokedSince(since, new Timestamp(System.currentTimeMillis()));
+        for (RevokedToken token : tokens) {
+            tokenRevocationService.revoke(token.getToken(), token.getExpirationDate());
+        }
+        advance(tokens);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${token.revocation.rebuild-cron}")
+    @Transactional
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            int deleted = tokenRepository.deleteExpired(now);
+            List<RevokedToken> tokens = tokenRepository.findRevokedSince(new Timestamp(0), now);
+            tokenRevocationService.replaceAll(tokens);
+            advance(tokens);
+            log.info("Loaded {} revoked tokens, deleted {} expired tokens", tokens.size(), deleted);
+        });
+    }
+
+    // Danh sách đã sắp xếp theo revoked_at
+    private synchronized void advance(List<RevokedToken> tokens) {
+        if (!tokens.isEmpty()) {
+            watermark = Math.max(watermark, tokens.get(tokens.size() - 1).getRevokedAt().getTime());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.tmartweb.application.services.token;
+
+import com.project.tmartweb.application.responses.RevokedToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Danh sách token đã bị thu hồi (đăng xuất / buộc đăng xuất), giữ trong bộ nhớ để JwtTokenFilter kiểm tra
+ * mà không cần truy vấn database.
+ * <p>
+ * Token được nhận diện bằng SHA-256 (JwtTokenProvider.digest). Bloom filter loại nhanh hầu hết token chưa bị
+ * thu hồi, tập digest chính xác loại bỏ false positive. TokenRevocationJob nạp thêm các token bị thu hồi
+ * trên instance khác từ bảng tokens.
+ */
+@Service
+public class TokenRevocationService {
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Revocations revocations;
+
+    public TokenRevocationService(MeterRegistry meterRegistry,
+                                  @Value("${token.revocation.expected-insertions}") long expectedInsertions,
+                                  @Value("${token.revocation.false-positive-rate}") double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revocations = new Revocations(new BloomFilter(expectedInsertions, falsePositiveRate));
+
+        Gauge.builder("token.revocation.revoked", this, service -> service.revocations.entries.size())
+                .description("Số token đang bị thu hồi")
+                .register(meterRegistry);
+        Gauge.builder("token.revocation.filter.size", this, service -> service.revocations.filter.sizeInBytes())
+                .description("Dung lượng bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String digest) {
+        Revocations current = revocations;
+        return current.filter.mightContain(digest) && current.entries.containsKey(digest);
+    }
+
+    public synchronized void revoke(String digest, Timestamp expirationDate) {
+        if (expirationDate.getTime() > System.currentTimeMillis()) {
+            revocations.add(digest, expirationDate.getTime());
+        }
+    }
+
+    /**
+     * Thu hồi sau khi transaction hiện tại commit: nếu ghi bảng tokens thất bại thì token không bị chặn
+     * riêng trên instance này trong khi database vẫn coi là còn hiệu lực.
+     */
+    public void revokeAfterCommit(String digest, Timestamp expirationDate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoke(digest, expirationDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoke(digest, expirationDate);
+            }
+        });
+    }
+
+    /**
+     * Thay toàn bộ bằng danh sách đọc từ database: bỏ các token đã hết hạn và tạo lại bloom filter
+     * (bloom filter không xóa được phần tử). Các token bị thu hồi trong lúc đang đọc vẫn được giữ lại.
+     */
+    public synchronized void replaceAll(List<RevokedToken> tokens) {
+        long now = System.currentTimeMillis();
+        long capacity = Math.max(expectedInsertions, tokens.size() * 2L);
+        Revocations next = new Revocations(new BloomFilter(capacity, falsePositiveRate));
+        for (RevokedToken token : tokens) {
+            next.add(token.getToken(), token.getExpirationDate().getTime());
+        }
+        revocations.entries.forEach((digest, expiration) -> {
+            if (expiration > now) {
+                next.add(digest, expiration);
+            }
+        });
+        revocations = next;
+    }
+
+    public int size() {
+        return revocations.entries.size();
+    }
+
+    private static class Revocations {
+        private final BloomFilter filter;
+        // digest -> thời điểm token hết hạn (millis)
+        private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+        private Revocations(BloomFilter filter) {
+            this.filter = filter;
+        }
+
+        private void add(String digest, long expiration) {
+            entries.put(digest, expiration);
+            filter.put(digest);
+        }
+    }
+}
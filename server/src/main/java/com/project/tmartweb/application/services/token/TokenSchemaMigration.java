@@ -0,0 +1,52 @@
+package com.project.tmartweb.application.services.token;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chuyển bảng tokens từ quan hệ một-một sang nhiều token cho mỗi người dùng.
+ * <p>
+ * Khi còn là OneToOne, ddl-auto đã tạo ràng buộc unique trên tokens.user_id với tên do Hibernate sinh ra,
+ * và ddl-auto update không tự xóa ràng buộc này nên lần đăng nhập thứ hai của cùng người dùng sẽ lỗi.
+ * Ràng buộc được tìm theo cột trong pg_constraint rồi xóa, nên chạy lại nhiều lần vẫn an toàn.
+ * Chạy sau khi Hibernate cập nhật schema (DependsOn entityManagerFactory) và trước khi nhận request.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Log4j2
+public class TokenSchemaMigration {
+    private static final String UNIQUE_USER_ID_SQL = """
+            SELECT con.conname
+            FROM pg_constraint con
+                     JOIN pg_class rel ON rel.oid = con.conrelid
+                     JOIN pg_namespace nsp ON nsp.oid = rel.relnamespace
+                     JOIN pg_attribute att ON att.attrelid = rel.oid AND att.attnum = con.conkey[1]
+            WHERE nsp.nspname = current_schema()
+              AND rel.relname = 'tokens'
+              AND con.contype = 'u'
+              AND cardinality(con.conkey) = 1
+              AND att.attname = 'user_id'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TokenSchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        List<String> constraints = jdbcTemplate.queryForList(UNIQUE_USER_ID_SQL, String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE tokens DROP CONSTRAINT IF EXISTS \"" + constraint + "\"");
+            log.info("Dropped unique constraint {} on tokens.user_id", constraint);
+        }
+        // Index của ràng buộc unique đã bị xóa theo, tạo lại index thường cho các truy vấn theo user_id
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tokens_user_id ON tokens(user_id)");
+    }
+}
@@ -21,6 +21,10 @@ public interface IUserService extends IBaseService<User, UserDTO, UUID> {
 
     User getByToken(String token);
 
+    void logout(String token);
+
+    void logoutAll(UUID id);
+
     String uploadImage(UUID userId, MultipartFile file);
 
     User editProfile(UUID id, UserEditProfileDTO userEditProfileDTO);
@@ -6,10 +6,12 @@ import com.project.tmartweb.application.responses.TokenResponse;
 import com.project.tmartweb.application.services.file.FileService;
 import com.project.tmartweb.application.services.role.RoleService;
 import com.project.tmartweb.application.services.token.ITokenService;
+import com.project.tmartweb.application.services.token.TokenRevocationService;
 import com.project.tmartweb.config.exceptions.ConflictException;
 import com.project.tmartweb.config.exceptions.NotFoundException;
-import com.project.tmartweb.config.security.CustomUserDetails;
+import com.project.tmartweb.config.security.CustomUserDetailService;
 import com.project.tmartweb.config.security.JwtTokenProvider;
+import com.project.tmartweb.config.security.PasswordHasher;
 import com.project.tmartweb.domain.dtos.*;
 import com.project.tmartweb.domain.entities.Role;
 import com.project.tmartweb.domain.entities.Token;
@@ -17,17 +19,17 @@ import com.project.tmartweb.domain.entities.User;
 import com.project.tmartweb.domain.enums.RoleId;
 import com.project.tmartweb.domain.paginate.BasePagination;
 import com.project.tmartweb.domain.paginate.PaginationDTO;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,40 +37,71 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 public class UserService implements IUserService {
+    private static final String AUTHENTICATION_TOKEN = "Authentication";
+
     private final UserRepository userRepository;
     private final ModelMapper mapper;
     private final RoleService roleService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHasher passwordHasher;
     private final ITokenService tokenService;
     private final TokenRepository tokenRepository;
     private final FileService fileService;
+    private final CustomUserDetailService userDetailService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public TokenResponse Login(UserLoginDTO userLoginDTO) {
         String username = userLoginDTO.getUserName();
         String password = userLoginDTO.getPassword();
         Optional<User> user = userRepository.findByUserName(username);
-        if (user.isEmpty() || !passwordEncoder.matches(password, user.get().getPassword())) {
+        // Chỉ kiểm tra BCrypt một lần, không gọi thêm AuthenticationManager
+        if (user.isEmpty() || !passwordHasher.matches(password, user.get().getPassword())) {
             throw new NotFoundException("Tên đăng nhập hoặc mật khẩu không tồn tại", "User or password not found");
         }
-        CustomUserDetails customUserDetails = new CustomUserDetails(user.get());
-        UsernamePasswordAuthenticationToken userToken =
-                new UsernamePasswordAuthenticationToken(
-                        username, password, customUserDetails.getAuthorities()
-                );
-        authenticationManager.authenticate(userToken);
         String tokenString = jwtTokenProvider.generateToken(user.get());
-//        Token token = new Token();
-//        token.setUser(user.get());
-//        token.setToken(tokenString);
-//        token.setExpirationDate(jwtTokenProvider.getExpirationDate(tokenString));
-//        token.setTokenType("Authentication");
-//        tokenRepository.save(token);
+        // Lưu SHA-256 của token để có thể thu hồi khi đăng xuất / buộc đăng xuất
+        Token token = new Token();
+        token.setUser(user.get());
+        token.setToken(jwtTokenProvider.digest(tokenString));
+        token.setExpirationDate(jwtTokenProvider.getExpirationDate(tokenString));
+        token.setTokenType(AUTHENTICATION_TOKEN);
+        tokenRepository.save(token);
         return new TokenResponse(tokenString, user.get().getId(), user.get().getFullName());
     }
 
+    @Override
+    @Transactional
+    public void logout(String tokenString) {
+        String digest = jwtTokenProvider.digest(tokenString);
+        Claims claims = jwtTokenProvider.extractAllClaims(tokenString);
+        Timestamp expirationDate = new Timestamp(claims.getExpiration().getTime());
+        Token token = tokenRepository.findById(digest).orElseGet(() -> {
+            Token created = new Token();
+            created.setUser(getById(UUID.fromString(claims.get("id", String.class))));
+            created.setToken(digest);
+            created.setExpirationDate(expirationDate);
+            created.setTokenType(AUTHENTICATION_TOKEN);
+            return created;
+        });
+        token.setRevoked(true);
+        token.setRevokedAt(new Timestamp(System.currentTimeMillis()));
+        tokenRepository.save(token);
+        tokenRevocationService.revokeAfterCommit(digest, expirationDate);
+    }
+
+    @Override
+    @Transactional
+    public void logoutAll(UUID id) {
+        User user = getById(id);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Token token : tokenRepository.findAllActiveByUserId(user.getId(), now)) {
+            token.setRevoked(true);
+            token.setRevokedAt(now);
+            tokenRevocationService.revokeAfterCommit(token.getToken(), token.getExpirationDate());
+        }
+    }
+
     @Override
     public User getByUserName(String userName) {
         return userRepository.findByUserName(userName)
@@ -77,8 +110,8 @@ public class UserService implements IUserService {
 
     @Override
     public User getByToken(String token) {
-        Token tokenModel = tokenService.getById(token);
-        if (tokenModel.getExpired()) {
+        Token tokenModel = tokenService.getById(jwtTokenProvider.digest(token));
+        if (tokenModel.getExpired() || tokenModel.getRevoked()) {
             throw new NotFoundException("Token đã hết hạn", "Token expired");
         }
         return tokenModel.getUser();
@@ -95,18 +128,22 @@ public class UserService implements IUserService {
     @Override
     public User editProfile(UUID id, UserEditProfileDTO userEditProfileDTO) {
         User user = getById(id);
+        String userName = user.getUserName();
         mapper.map(userEditProfileDTO, user);
-        return userRepository.save(user);
+        User updated = userRepository.save(user);
+        userDetailService.evict(userName, id);
+        return updated;
     }
 
     @Override
     public String changePassword(UUID id, UserChangePassword userChangePassword) {
         User user = getById(id);
-        if (!passwordEncoder.matches(userChangePassword.getOldPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(userChangePassword.getOldPassword(), user.getPassword())) {
             throw new NotFoundException("Mật không tồn tại", "Old password is not correct");
         }
-        user.setPassword(passwordEncoder.encode(userChangePassword.getNewPassword()));
+        user.setPassword(passwordHasher.encode(userChangePassword.getNewPassword()));
         userRepository.save(user);
+        userDetailService.evict(user.getUserName(), user.getId());
         return "Cập nhật mật khẩu thành công!";
     }
 
@@ -136,7 +173,7 @@ public class UserService implements IUserService {
         }
         User user = mapper.map(userDTO, User.class);
         Role role = roleService.getById(userDTO.getRoleId());
-        String encoderPassword = passwordEncoder.encode(userDTO.getPassword());
+        String encoderPassword = passwordHasher.encode(userDTO.getPassword());
         user.setPassword(encoderPassword);
         user.setRole(role);
         return userRepository.save(user);
@@ -156,17 +193,21 @@ public class UserService implements IUserService {
             throw new ConflictException("Email đã tồn tại", "Email is already exists");
         }
         Role role = roleService.getById(userDTO.getRoleId());
+        String userName = user.getUserName();
         user.setRole(role);
         UserUpdateDTO userUpdateDTO = mapper.map(userDTO, UserUpdateDTO.class);
         mapper.map(userDTO, userUpdateDTO);
         mapper.map(userUpdateDTO, user);
-        return userRepository.save(user);
+        User updated = userRepository.save(user);
+        userDetailService.evict(userName, id);
+        return updated;
     }
 
     @Override
     public void delete(User user) {
         user.setDeleted(true);
         userRepository.save(user);
+        userDetailService.evict(user.getUserName(), user.getId());
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.project.tmartweb.config.async;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -8,7 +10,10 @@ import java.util.concurrent.Executor;
 
 @Configuration
 public class AsyncConfig {
+    // Khi bật spring.threads.virtual.enabled, Spring Boot tự tạo taskExecutor chạy trên virtual thread
+    // (giới hạn bởi spring.task.execution.simple.concurrency-limit)
     @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
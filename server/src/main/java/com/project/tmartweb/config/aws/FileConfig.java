@@ -3,11 +3,18 @@ package com.project.tmartweb.config.aws;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.Executors;
 
 @Configuration
 public class FileConfig {
@@ -20,14 +27,46 @@ public class FileConfig {
     @Value("${cloud.aws.region}")
     private String region;
 
+    // Để trống khi dùng AWS, đặt địa chỉ khi chạy với S3 tương thích (MinIO, LocalStack...)
+    @Value("${cloud.aws.endpoint}")
+    private String endpoint;
+
+    @Value("${cloud.aws.path-style-access}")
+    private boolean pathStyleAccess;
+
+    @Value("${cloud.aws.upload-concurrency}")
+    private int uploadConcurrency;
+
+    @Value("${cloud.aws.multipart-threshold}")
+    private DataSize multipartThreshold;
+
     @Bean
     public AmazonS3 amazonS3() {
         AWSCredentials awsCredentials = new BasicAWSCredentials(accessKey, secretKey);
         AWSStaticCredentialsProvider awsStaticCredentialsProvider = new AWSStaticCredentialsProvider(awsCredentials);
-        return AmazonS3ClientBuilder
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder
                 .standard()
                 .withCredentials(awsStaticCredentialsProvider)
-                .withRegion(region)
+                .withPathStyleAccessEnabled(pathStyleAccess);
+        if (StringUtils.hasText(endpoint)) {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+        } else {
+            builder.withRegion(region);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Upload qua TransferManager: file lớn hơn multipart-threshold được chia thành nhiều part,
+     * số upload chạy song song bị giới hạn bởi upload-concurrency.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public TransferManager transferManager(AmazonS3 amazonS3) {
+        return TransferManagerBuilder
+                .standard()
+                .withS3Client(amazonS3)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(uploadConcurrency))
+                .withMultipartUploadThreshold(multipartThreshold.toBytes())
                 .build();
     }
 }
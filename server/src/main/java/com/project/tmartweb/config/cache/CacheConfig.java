@@ -0,0 +1,50 @@
+package com.project.tmartweb.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.tmartweb.application.constant.CacheName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    @Value("${cache.specs.product}")
+    private String productSpec;
+
+    @Value("${cache.specs.products}")
+    private String productsSpec;
+
+    @Value("${cache.specs.categories}")
+    private String categoriesSpec;
+
+    @Value("${cache.specs.coupons}")
+    private String couponsSpec;
+
+    @Value("${cache.specs.revenue-periods}")
+    private String revenuePeriodsSpec;
+
+    @Value("${cache.specs.principals}")
+    private String principalsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheName.PRODUCT, build(productSpec));
+        cacheManager.registerCustomCache(CacheName.PRODUCTS, build(productsSpec));
+        cacheManager.registerCustomCache(CacheName.CATEGORIES, build(categoriesSpec));
+        cacheManager.registerCustomCache(CacheName.COUPONS, build(couponsSpec));
+        cacheManager.registerCustomCache(CacheName.REVENUE_PERIODS, build(revenuePeriodsSpec));
+        cacheManager.registerCustomCache(CacheName.PRINCIPALS, build(principalsSpec));
+        // Chỉ xóa cache sau khi transaction commit, tránh đọc lại dữ liệu cũ trước khi commit
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> build(String spec) {
+        return Caffeine.from(spec).recordStats().build();
+    }
+}
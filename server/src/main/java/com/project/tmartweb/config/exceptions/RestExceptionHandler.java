@@ -75,6 +75,13 @@ public class RestExceptionHandler {
         return RestResponse.error(e.getStatus(), e.getUserMessage(), e.getDevMessage());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<RestData<?>> handleTooManyRequestsException(TooManyRequestsException e) {
+        LOGGER.warn("TooManyRequestsException: " + e.getDevMessage());
+        return RestResponse.error(e.getStatus(), e.getUserMessage(), e.getDevMessage());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ResponseEntity<RestData<?>> handleAccessDeniedSecurityException(AccessDeniedException e) {
@@ -0,0 +1,28 @@
+package com.project.tmartweb.config.exceptions;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@Setter
+public class TooManyRequestsException extends RuntimeException {
+    private HttpStatus status;
+
+    private String userMessage;
+
+    private String devMessage;
+
+    public TooManyRequestsException(String devMessage) {
+        super(devMessage);
+        this.status = HttpStatus.TOO_MANY_REQUESTS;
+        this.devMessage = devMessage;
+    }
+
+    public TooManyRequestsException(String userMessage, String devMessage) {
+        super(devMessage);
+        this.status = HttpStatus.TOO_MANY_REQUESTS;
+        this.userMessage = userMessage;
+        this.devMessage = devMessage;
+    }
+}
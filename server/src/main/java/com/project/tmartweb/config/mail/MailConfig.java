@@ -24,6 +24,9 @@ public class MailConfig {
     @Value("${mail.password}")
     private String password;
 
+    @Value("${mail.debug}")
+    private boolean debug;
+
     @Bean
     public JavaMailSender getJavaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
@@ -37,7 +40,7 @@ public class MailConfig {
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.debug", "true");
+        props.put("mail.debug", String.valueOf(debug));
         
         return mailSender;
     }
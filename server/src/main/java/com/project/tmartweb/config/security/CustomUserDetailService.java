@@ -1,17 +1,24 @@
 package com.project.tmartweb.config.security;
 
+import com.project.tmartweb.application.constant.CacheName;
 import com.project.tmartweb.application.repositories.UserRepository;
 import com.project.tmartweb.domain.entities.User;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -19,4 +26,38 @@ public class CustomUserDetailService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return new CustomUserDetails(user);
     }
+
+    /**
+     * Lấy người dùng của token đã xác thực, cache theo subject và id trong thời gian ngắn.
+     * Đọc theo khóa chính thay vì tìm theo userName / email / số điện thoại như loadUserByUsername.
+     */
+    public CustomUserDetails loadUserByClaims(Claims claims) throws UsernameNotFoundException {
+        String userName = claims.getSubject();
+        UUID id = UUID.fromString(claims.get("id", String.class));
+        Cache cache = cacheManager.getCache(CacheName.PRINCIPALS);
+        String key = key(userName, id);
+        CustomUserDetails userDetails = cache == null ? null : cache.get(key, CustomUserDetails.class);
+        if (userDetails == null) {
+            User user = userRepository.findById(id)
+                    .filter(found -> userName.equals(found.getUserName()) && !found.getDeleted())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            userDetails = new CustomUserDetails(user);
+            if (cache != null) {
+                cache.put(key, userDetails);
+            }
+        }
+        return userDetails;
+    }
+
+    // Gọi khi thông tin, mật khẩu, quyền hoặc trạng thái xóa của người dùng thay đổi
+    public void evict(String userName, UUID id) {
+        Cache cache = cacheManager.getCache(CacheName.PRINCIPALS);
+        if (cache != null) {
+            cache.evict(key(userName, id));
+        }
+    }
+
+    private String key(String userName, UUID id) {
+        return userName + ":" + id;
+    }
 }
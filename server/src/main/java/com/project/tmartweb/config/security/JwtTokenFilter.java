@@ -1,6 +1,9 @@
 package com.project.tmartweb.config.security;
 
 import com.project.tmartweb.application.constant.SecurityConstant;
+import com.project.tmartweb.application.services.token.TokenRevocationService;
+import com.project.tmartweb.config.exceptions.UnauthorizedException;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     private String API_PREFIX;
     private final CustomUserDetailService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -44,16 +48,19 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
             } else {
                 final String token = authHeader.substring(7);
-                final String userName = jwtTokenProvider.extractUsername(token);
+                final Claims claims = jwtTokenProvider.extractAllClaims(token);
+                if (tokenRevocationService.isRevoked(jwtTokenProvider.digest(token))) {
+                    throw new UnauthorizedException("Phiên đăng nhập đã kết thúc", "Token has been revoked");
+                }
 
-                if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+                if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = userDetailsService.loadUserByClaims(claims);
                     if (jwtTokenProvider.validateToken(token, userDetails)) {
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
                                         null,
-                                        userDetails.getAuthorities()
+                                        jwtTokenProvider.extractAuthorities(claims)
                                 );
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -75,7 +82,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 Pair.of((API_PREFIX + "/products"), "GET"),
                 Pair.of((API_PREFIX + "/categories"), "GET"),
                 Pair.of((API_PREFIX + "/feedbacks"), "GET"),
-                Pair.of((API_PREFIX + "/galleries"), "GET")
+                Pair.of((API_PREFIX + "/galleries"), "GET"),
+                Pair.of((API_PREFIX + "/images/files"), "GET")
         );
         String requestPath = request.getServletPath();
         String requestMethod = request.getMethod();
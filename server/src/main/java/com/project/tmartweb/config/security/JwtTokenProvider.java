@@ -1,32 +1,64 @@
 package com.project.tmartweb.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.project.tmartweb.domain.entities.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Timestamp;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Tạo và xác thực JWT.
+ * <p>
+ * Key và parser được tạo một lần khi khởi động. Claims của token đã xác thực được cache theo SHA-256 của token
+ * cho đến thời điểm exp, nên mỗi request chỉ phải kiểm tra chữ ký lần đầu token được dùng.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
-    @Value("${jwt.expiration}")
-    private int expiration;
-
-    @Value("${jwt.secret-key}")
-    private String secretKey;
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private final int expiration;
+    private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtTokenProvider(MeterRegistry meterRegistry,
+                            @Value("${jwt.expiration}") int expiration,
+                            @Value("${jwt.secret-key}") String secretKey,
+                            @Value("${jwt.cache.maximum-size}") long cacheSize) {
+        this.expiration = expiration;
+        this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parser().verifyWith(this.secretKey).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt-claims");
+    }
+
     public String generateToken(User user) {
         Map<String, Object> claims = Map.of(
                 "id", user.getId(),
@@ -37,22 +69,23 @@ public class JwtTokenProvider {
                 .subject(user.getUserName())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration * 1000L))
-                .signWith(SignatureAlgorithm.HS256, getSecretKey())
+                .signWith(secretKey, Jwts.SIG.HS256)
                 .compact();
 
     }
 
-    private Key getSecretKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Token sai chữ ký / hết hạn ném exception và không được cache
+    public Claims extractAllClaims(String token) {
+        return claimsCache.get(digest(token), key -> jwtParser.parseSignedClaims(token).getPayload());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public Timestamp getExpirationDate(String token) {
@@ -72,14 +105,18 @@ public class JwtTokenProvider {
         return extractClaim(token, Claims::getSubject);
     }
 
+    // Quyền lấy từ claim role, không cần đọc database
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("role", String.class)));
+    }
+
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
         try {
-            if (username.equals(userDetails.getUsername()) && !isTokenExpired(token)) {
-                return true;
-            }
-            Jwts.parser().setSigningKey(getSecretKey()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = extractAllClaims(token);
+            // Token cấp trước khi người dùng bị đổi quyền không còn hợp lệ
+            return claims.getSubject().equals(userDetails.getUsername())
+                    && claims.getExpiration().after(new Date())
+                    && userDetails.getAuthorities().containsAll(extractAuthorities(claims));
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -93,4 +130,26 @@ public class JwtTokenProvider {
         }
         return false;
     }
+
+    // Mỗi entry hết hạn đúng lúc token hết hạn
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
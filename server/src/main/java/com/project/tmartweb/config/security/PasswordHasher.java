@@ -0,0 +1,94 @@
+package com.project.tmartweb.config.security;
+
+import com.project.tmartweb.config.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chạy BCrypt trên một pool riêng có giới hạn, đăng nhập dồn dập không chiếm hết CPU và thread xử lý request.
+ * <p>
+ * Hàng đợi đầy hoặc chờ quá timeout thì trả về 429 (TooManyRequestsException) ngay thay vì xếp hàng vô hạn.
+ */
+@Component
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.password.threads}") int threads,
+                          @Value("${security.password.queue-capacity}") int queueCapacity,
+                          @Value("${security.password.timeout}") long timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("Password-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("security.password.hash")
+                .description("Thời gian băm / kiểm tra một mật khẩu")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("security.password.rejected")
+                .description("Số yêu cầu bị từ chối vì pool băm mật khẩu đang đầy")
+                .register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            throw rejected("Password hashing queue is full");
+        }
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw rejected("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TooManyRequestsException rejected(String devMessage) {
+        rejectedCounter.increment();
+        return new TooManyRequestsException("Hệ thống đang bận, vui lòng thử lại sau", devMessage);
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.tmartweb.config.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -30,6 +31,8 @@ public class WebSecurityConfig {
                 .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests((requests) -> {
                     requests
+                            // SSE: lượt dispatch ASYNC / ERROR khi stream kết thúc đã được xác thực ở request đầu
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                             .requestMatchers(
                                     apiPrefix + "/users/login",
                                     apiPrefix + "/users/register")
@@ -38,6 +41,8 @@ public class WebSecurityConfig {
                             .requestMatchers(HttpMethod.GET, apiPrefix + "/categories/**").permitAll()
                             .requestMatchers(HttpMethod.GET, apiPrefix + "/galleries/**").permitAll()
                             .requestMatchers(HttpMethod.GET, apiPrefix + "/feedbacks/**").permitAll()
+                            .requestMatchers(HttpMethod.GET, apiPrefix + "/images/files/**").permitAll()
+                            .requestMatchers("/actuator/**").hasRole("ADMIN")
                             .anyRequest().authenticated();
                 })
                 .sessionManagement(
@@ -0,0 +1,69 @@
+package com.project.tmartweb.config.threads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ghi log khi virtual thread bị ghim vào carrier thread (chặn I/O bên trong synchronized hoặc native),
+ * dựa trên sự kiện JFR jdk.VirtualThreadPinned. Chỉ chạy khi bật virtual thread.
+ */
+@Component
+@Log4j2
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 8;
+
+    private final Counter pinnedCounter;
+    private RecordingStream recordingStream;
+
+    @Value("${threads.pinning.threshold}")
+    private Duration threshold;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Số lần virtual thread bị ghim lâu hơn ngưỡng")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String stack = frames.stream()
+                .limit(MAX_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n    at "));
+        log.warn("Virtual thread pinned for {} ms\n    at {}", event.getDuration().toMillis(), stack);
+    }
+}
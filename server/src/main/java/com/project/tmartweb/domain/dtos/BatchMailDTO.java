@@ -0,0 +1,30 @@
+package com.project.tmartweb.domain.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BatchMailDTO {
+    @NotBlank(message = "Tiêu đề email không được để trống!")
+    private String subject;
+
+    @NotBlank(message = "Mẫu email không được để trống!")
+    private String templateName;
+
+    private Map<String, Object> variables;
+
+    @Valid
+    @NotEmpty(message = "Danh sách người nhận không được để trống!")
+    private List<MailRecipientDTO> recipients;
+}
@@ -0,0 +1,23 @@
+package com.project.tmartweb.domain.dtos;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class MailRecipientDTO {
+    @NotBlank(message = "Email người nhận không được để trống!")
+    @Email(message = "Email người nhận không hợp lệ!")
+    private String to;
+
+    // Biến riêng cho người nhận, ghi đè biến chung cùng tên
+    private Map<String, Object> variables;
+}
@@ -51,4 +51,10 @@ public class Coupon {
 
     @Column(name = "updated_by")
     private String updatedBy;
+
+    // Cột expired được cập nhật định kỳ bởi CouponExpiryJob, khi đọc thì tính luôn theo expirationDate
+    public Boolean getExpired() {
+        return Boolean.TRUE.equals(expired)
+                || (expirationDate != null && expirationDate.before(new Timestamp(System.currentTimeMillis())));
+    }
 }
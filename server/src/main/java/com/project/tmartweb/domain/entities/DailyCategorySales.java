@@ -0,0 +1,53 @@
+package com.project.tmartweb.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Số lượng / doanh thu đã cộng dồn theo ngày tạo đơn hàng × danh mục, chỉ tính đơn hàng SHIPPED.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@IdClass(DailyCategorySales.Key.class)
+@Table(name = "daily_category_sales")
+public class DailyCategorySales {
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "category_id")
+    private UUID categoryId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate day;
+
+        private UUID categoryId;
+    }
+}
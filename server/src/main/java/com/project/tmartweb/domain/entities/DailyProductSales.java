@@ -0,0 +1,52 @@
+package com.project.tmartweb.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Số lượng / doanh thu đã cộng dồn theo ngày tạo đơn hàng × sản phẩm, chỉ tính đơn hàng SHIPPED.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@IdClass(DailyProductSales.Key.class)
+@Table(name = "daily_product_sales")
+public class DailyProductSales {
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate day;
+
+        private String productId;
+    }
+}
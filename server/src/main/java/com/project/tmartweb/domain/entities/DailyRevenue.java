@@ -0,0 +1,33 @@
+package com.project.tmartweb.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Doanh thu đã cộng dồn theo ngày tạo của các đơn hàng SHIPPED.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "daily_revenue")
+public class DailyRevenue {
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "total_money", nullable = false)
+    private double totalMoney;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
@@ -15,7 +15,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "feedbacks")
+@Table(name = "feedbacks", indexes = {
+        @Index(name = "idx_feedbacks_product_created_at_id", columnList = "product_id, created_at, id")
+})
 public class Feedback extends AbstractAuditingEntity {
 
     @Column(name = "note")
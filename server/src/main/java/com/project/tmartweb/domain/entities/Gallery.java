@@ -6,6 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Map;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,6 +21,11 @@ public class Gallery extends AbstractAuditingEntity {
     @Column(name = "image")
     private String image;
 
+    // Tên variant (thumbnail, small, medium) -> url, null khi chưa tạo xong
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "variants", columnDefinition = "jsonb")
+    private Map<String, String> variants;
+
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Map;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,6 +25,11 @@ public class ImageProduct extends AbstractAuditingEntity {
     @Column(name = "url", length = 500)
     private String url;
 
+    // Tên variant (thumbnail, small, medium) -> url, null khi chưa tạo xong
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "variants", columnDefinition = "jsonb")
+    private Map<String, String> variants;
+
     @JsonBackReference
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
@@ -0,0 +1,53 @@
+package com.project.tmartweb.domain.entities;
+
+import com.project.tmartweb.domain.entities.base.AbstractAuditingEntity;
+import com.project.tmartweb.domain.enums.MailOutboxStatus;
+import com.project.tmartweb.domain.enums.MailType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Email chờ gửi, được ghi cùng transaction với đơn hàng và gửi bởi MailOutboxDispatcher.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class MailOutbox extends AbstractAuditingEntity {
+    @Column(name = "type", length = 50, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private MailType type;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    // Mỗi sự kiện chỉ gửi một lần, ví dụ ORDER_SHIPPED:<orderId>
+    @Column(name = "dedup_key", length = 150, nullable = false, unique = true)
+    private String dedupKey;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private MailOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private Timestamp sentAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
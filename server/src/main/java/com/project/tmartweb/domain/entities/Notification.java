@@ -12,7 +12,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_user_read_created_at", columnList = "user_id, read, created_at")
+})
 public class Notification extends AbstractAuditingEntity {
     @Column(name = "title")
     private String title;
@@ -17,7 +17,9 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id")
+})
 public class Order extends AbstractAuditingEntity {
     @Column(name = "full_name", length = 100)
     private String fullName;
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedBy;
@@ -19,7 +20,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_sold_quantity", columnList = "sold_quantity"),
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id")
+})
 public class Product {
     @Id
     @Column(name = "id")
@@ -50,7 +54,9 @@ public class Product {
     @OneToMany(mappedBy = "product")
     private List<ImageProduct> imageProducts;
 
-    @Transient
+    // Số lượng đã bán (chỉ tính đơn SHIPPED), được cập nhật khi đơn hàng chuyển trạng thái
+    @ColumnDefault("0")
+    @Column(name = "sold_quantity", nullable = false)
     private int soldQuantity;
 
     @JsonManagedReference
@@ -1,33 +1,86 @@
 package com.project.tmartweb.domain.entities;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Sinh id PRODUCT-n từ sequence product_id_seq theo kiểu pooled: mỗi lần nextval lấy một khối block-size số,
+ * các id trong khối được cấp từ bộ nhớ. Nhiều instance cùng chạy vẫn không trùng id vì mỗi khối chỉ được cấp
+ * cho một instance.
+ * <p>
+ * Lần đầu dùng sẽ tạo sequence nếu chưa có và đẩy nó vượt qua id lớn nhất đang có trong bảng products,
+ * dưới advisory lock để các instance khởi động cùng lúc không chạy chồng lên nhau.
+ * <p>
+ * block-size là thuộc tính cố định của sequence (INCREMENT BY). Nếu cấu hình khác với sequence đang có thì
+ * dừng lại thay vì ALTER SEQUENCE, vì instance còn chạy với block-size cũ sẽ cấp trùng id với khối mới.
+ */
 @Component
 public class ProductIdGenerator {
-    @PersistenceContext
-    private EntityManager entityManager;
+    private static final String PREFIX = "PRODUCT-";
+    private static final String SEQUENCE = "product_id_seq";
+    private static final long INIT_LOCK_KEY = 0x70726f64756374L;
+    private static final String MAX_ID_SQL =
+            "SELECT coalesce(max(CAST(substring(id, 9) AS bigint)), 0) FROM products WHERE id ~ '^PRODUCT-[0-9]+$'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    // ReentrantLock thay vì synchronized để virtual thread không bị ghim khi chờ nextval
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean initialized;
+    private long next;
+    private long limit;
+
+    public ProductIdGenerator(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.id.block-size}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
 
-    @Transactional
     public String generateNextId() {
-        List<String> resultList = entityManager
-                .createQuery("SELECT p.id FROM Product p " +
-                                     "ORDER BY CAST(SUBSTRING(p.id, 9) AS int) DESC", String.class)
-                .setMaxResults(1)
-                .getResultList();
-
-        String maxId = resultList.isEmpty() ? null : resultList.get(0);
-        int nextNumber = 1;
-
-        if (maxId != null && maxId.startsWith("PRODUCT-")) {
-            String numberPart = maxId.substring(8);
-            nextNumber = Integer.parseInt(numberPart) + 1;
+        lock.lock();
+        try {
+            if (next >= limit) {
+                if (!initialized) {
+                    transactionTemplate.executeWithoutResult(status -> initSequence());
+                    initialized = true;
+                }
+                next = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+                limit = next + blockSize;
+            }
+            return PREFIX + next++;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        return String.format("PRODUCT-%d", nextNumber);
+    private void initSequence() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", INIT_LOCK_KEY);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " INCREMENT BY " + blockSize);
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Long.class, SEQUENCE);
+        if (increment == null || increment != blockSize) {
+            throw new IllegalStateException("product.id.block-size=" + blockSize + " does not match "
+                    + SEQUENCE + " increment " + increment);
+        }
+        // Giá trị nextval sẽ trả về tiếp theo
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value + ? ELSE last_value END FROM " + SEQUENCE,
+                Long.class, blockSize);
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        if (maxId != null && nextValue != null && maxId >= nextValue) {
+            jdbcTemplate.queryForObject("SELECT setval('" + SEQUENCE + "', ?, false)", Long.class, maxId + 1);
+        }
     }
-}
\ No newline at end of file
+}
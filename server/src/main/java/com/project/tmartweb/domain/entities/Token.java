@@ -32,7 +32,11 @@ public class Token {
     @Column(name = "revoked")
     private Boolean revoked = Boolean.FALSE;
 
-    @OneToOne
+    @Column(name = "revoked_at")
+    private Timestamp revokedAt;
+
+    // Một người dùng có thể đăng nhập trên nhiều thiết bị
+    @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
 
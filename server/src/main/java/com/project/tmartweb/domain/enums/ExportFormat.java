@@ -0,0 +1,18 @@
+package com.project.tmartweb.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+    PDF("application/pdf", "pdf"),
+    ZIP("application/zip", "zip");
+
+    private String contentType;
+
+    private String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.tmartweb.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 200),
+    SMALL("small", 480),
+    MEDIUM("medium", 960);
+
+    private String key;
+
+    // Chiều rộng tối đa, chiều cao co theo tỉ lệ ảnh gốc
+    private int width;
+
+    ImageVariant(String key, int width) {
+        this.key = key;
+        this.width = width;
+    }
+}
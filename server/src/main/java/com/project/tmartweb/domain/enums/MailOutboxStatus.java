@@ -0,0 +1,16 @@
+package com.project.tmartweb.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum MailOutboxStatus {
+    PENDING("pending"),
+    SENT("sent"),
+    FAILED("failed");
+
+    private String description;
+
+    MailOutboxStatus(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.tmartweb.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum MailType {
+    ORDER_CREATED("order_created"),
+    ORDER_SHIPPED("order_shipped");
+
+    private String description;
+
+    MailType(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.tmartweb.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum SearchMode {
+    LIKE("like"),
+    INDEX("index");
+
+    private String description;
+
+    SearchMode(String description) {
+        this.description = description;
+    }
+}
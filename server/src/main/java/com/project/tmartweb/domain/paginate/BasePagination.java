@@ -6,8 +6,13 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.function.Function;
+
 @Component
 public class BasePagination<E, R extends JpaRepository<E, ?>> {
+    private static final int DEFAULT_PER_PAGE = 10;
+
     private R repository;
 
     public BasePagination() {
@@ -29,4 +34,23 @@ public class BasePagination<E, R extends JpaRepository<E, ?>> {
         Pagination pagination = new Pagination(page, perPage, pageData.getTotalPages() - 1, pageData.getTotalElements());
         return new PaginationDTO<>(pageData.getContent(), pagination);
     }
+
+    public static int perPageOrDefault(Integer perPage) {
+        return perPage == null || perPage < 1 ? DEFAULT_PER_PAGE : perPage;
+    }
+
+    /**
+     * Phân trang theo cursor: rows được truy vấn với giới hạn perPage + 1,
+     * bản ghi thừa chỉ dùng để biết còn trang sau hay không.
+     * total chỉ có khi client yêu cầu, tránh phải COUNT(*) mỗi trang.
+     */
+    public PaginationDTO<E> paginate(List<E> rows, Integer perPage, Function<E, Cursor> cursorOf, Long total) {
+        String nextCursor = null;
+        if (rows.size() > perPage) {
+            rows = rows.subList(0, perPage);
+            nextCursor = cursorOf.apply(rows.get(perPage - 1)).encode();
+        }
+        Pagination pagination = new Pagination(null, perPage, null, total, nextCursor);
+        return new PaginationDTO<>(rows, pagination);
+    }
 }
@@ -0,0 +1,55 @@
+package com.project.tmartweb.domain.paginate;
+
+import com.project.tmartweb.config.exceptions.InvalidParamException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Vị trí (createdAt, id) của bản ghi cuối cùng trong trang trước, dùng cho phân trang keyset.
+ * Client chỉ nhận chuỗi mã hóa và gửi lại nguyên vẹn ở tham số cursor.
+ */
+@AllArgsConstructor
+@Getter
+public class Cursor {
+    private static final String SEPARATOR = "|";
+
+    private Timestamp createdAt;
+
+    private String id;
+
+    public UUID getUuid() {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParamException("Cursor không hợp lệ!", "Invalid cursor id: " + id);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Trả về null với cursor rỗng (trang đầu tiên).
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Timestamp createdAt = Timestamp.from(Instant.parse(raw.substring(0, separator)));
+            return new Cursor(createdAt, raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new InvalidParamException("Cursor không hợp lệ!", "Invalid cursor: " + cursor);
+        }
+    }
+}
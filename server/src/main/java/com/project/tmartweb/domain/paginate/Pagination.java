@@ -1,5 +1,6 @@
 package com.project.tmartweb.domain.paginate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,12 @@ public class Pagination {
     private Integer lastPage;
 
     private Long total;
+
+    // Chỉ có ở chế độ cursor, null khi đã tới trang cuối
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public Pagination(Integer page, Integer perPage, Integer lastPage, Long total) {
+        this(page, perPage, lastPage, total, null);
+    }
 }
@@ -34,8 +34,13 @@ public class FeedbacksController {
             @PathVariable("id") String id,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer perPage,
-            @RequestParam(required = false) Integer star
+            @RequestParam(required = false) Integer star,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(feedbackService.getAllByProduct(id, cursor, perPage, star, withTotal));
+        }
         var result = feedbackService.getAllByProduct(id, page, perPage, star);
         return ResponseEntity.status(200).body(result);
     }
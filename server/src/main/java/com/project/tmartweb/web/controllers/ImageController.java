@@ -1,15 +1,22 @@
 package com.project.tmartweb.web.controllers;
 
+import com.project.tmartweb.application.services.file.FileDownloadService;
 import com.project.tmartweb.application.services.file.IFileService;
+import com.project.tmartweb.application.services.image.ImageVariantService;
+import com.project.tmartweb.web.base.RoleAdmin;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,13 +24,27 @@ import java.util.List;
 public class ImageController {
     @Autowired
     private IFileService fileService;
+    @Autowired
+    private ImageVariantService imageVariantService;
+    @Autowired
+    private FileDownloadService fileDownloadService;
 
     @PostMapping("/upload")
     public ResponseEntity<?> upload(@RequestPart List<MultipartFile> files) {
-        List<String> urls = new ArrayList<>();
-        for (MultipartFile file : files) {
-            urls.add(fileService.uploadFile(file));
-        }
-        return ResponseEntity.ok(urls);
+        return ResponseEntity.ok(fileService.uploadFiles(files));
+    }
+
+    @GetMapping("/files/{fileName}")
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        fileDownloadService.serve(fileName, request, response);
+    }
+
+    // Tạo ảnh thu nhỏ cho các ảnh đã upload trước khi có variants, chạy nền
+    @PostMapping("/variants/backfill")
+    @RoleAdmin
+    public ResponseEntity<?> backfillVariants() {
+        imageVariantService.backfill();
+        return ResponseEntity.status(202).body("Backfill started");
     }
 }
@@ -0,0 +1,27 @@
+package com.project.tmartweb.web.controllers;
+
+import com.project.tmartweb.application.services.email.IEmailService;
+import com.project.tmartweb.domain.dtos.BatchMailDTO;
+import com.project.tmartweb.web.base.RoleAdmin;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("${api.prefix}/mails")
+public class MailController {
+    @Autowired
+    private IEmailService emailService;
+
+    @PostMapping("/batch")
+    @RoleAdmin
+    public ResponseEntity<?> sendBatchMail(@Valid @RequestBody BatchMailDTO batchMailDTO) {
+        var result = emailService.sendBatchTemplateMail(batchMailDTO.getSubject(), batchMailDTO.getTemplateName(),
+                batchMailDTO.getVariables(), batchMailDTO.getRecipients());
+        return ResponseEntity.status(200).body(result);
+    }
+}
@@ -1,13 +1,16 @@
 package com.project.tmartweb.web.controllers;
 
 import com.project.tmartweb.application.services.notification.INotificationService;
+import com.project.tmartweb.application.services.notification.NotificationHub;
 import com.project.tmartweb.domain.dtos.NotificationDTO;
 import com.project.tmartweb.web.base.RoleAdmin;
 import com.project.tmartweb.web.base.RoleUser;
 import com.project.tmartweb.web.base.RolesAdminUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -16,6 +19,8 @@ import java.util.UUID;
 public class NotificationsController {
     @Autowired
     private INotificationService notificationService;
+    @Autowired
+    private NotificationHub notificationHub;
 
     @GetMapping("")
     @RoleAdmin
@@ -58,8 +63,13 @@ public class NotificationsController {
     public ResponseEntity<?> getAllNotificationsByUser(
             @PathVariable UUID id,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer perPage
+            @RequestParam(required = false) Integer perPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(notificationService.getAllByUser(id, cursor, perPage, withTotal));
+        }
         var result = notificationService.getAllByUser(id, page, perPage);
         return ResponseEntity.ok(result);
     }
@@ -97,7 +107,24 @@ public class NotificationsController {
     public ResponseEntity<?> readAllNotifications(
             @PathVariable UUID id
     ) {
-        notificationService.readAllNotifications(id);
-        return ResponseEntity.ok("Update successfully!");
+        var result = notificationService.readAllNotifications(id);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(value = "/stream/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RolesAdminUser
+    public SseEmitter streamNotifications(
+            @PathVariable UUID id
+    ) {
+        return notificationHub.subscribe(id);
+    }
+
+    @GetMapping("/unread-count/{id}")
+    @RolesAdminUser
+    public ResponseEntity<?> countUnreadNotifications(
+            @PathVariable UUID id
+    ) {
+        var result = notificationService.countUnread(id);
+        return ResponseEntity.ok(result);
     }
 }
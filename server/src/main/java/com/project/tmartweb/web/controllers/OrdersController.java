@@ -9,6 +9,7 @@ import com.project.tmartweb.application.services.order.IOrderService;
 import com.project.tmartweb.domain.dtos.OrderDTO;
 import com.project.tmartweb.domain.entities.Cart;
 import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.enums.ExportFormat;
 import com.project.tmartweb.domain.enums.OrderStatus;
 import com.project.tmartweb.web.base.RestAPI;
 import com.project.tmartweb.web.base.RoleAdmin;
@@ -22,7 +23,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import com.project.tmartweb.application.responses.CategorySalesStatistical;
+import java.io.IOException;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -130,8 +133,16 @@ public class OrdersController {
 
     @GetMapping("/statistical")
     @RoleAdmin
-    public ResponseEntity<?> statistical(@RequestParam(required = false) int year) {
-        return ResponseEntity.status(HttpStatus.OK).body(orderService.statisticals(year));
+    public ResponseEntity<?> statistical(@RequestParam(required = false) Integer year) {
+        int statisticalYear = year == null ? LocalDate.now().getYear() : year;
+        return ResponseEntity.status(HttpStatus.OK).body(orderService.statisticals(statisticalYear));
+    }
+
+    @GetMapping("/statistical/weekly")
+    @RoleAdmin
+    public ResponseEntity<?> weeklyStatistical(@RequestParam(required = false) Integer year) {
+        int statisticalYear = year == null ? LocalDate.now().getYear() : year;
+        return ResponseEntity.status(HttpStatus.OK).body(orderService.weeklyStatisticals(statisticalYear));
     }
 
     @GetMapping("/stats/daily")
@@ -186,6 +197,22 @@ public class OrdersController {
         orderExportService.exportBillOrder(order, response);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportBatch(
+            @RequestParam(name = "startDate") String startDate,
+            @RequestParam(name = "endDate") String endDate,
+            @RequestParam(name = "status", required = false) OrderStatus status,
+            @RequestParam(name = "format", defaultValue = "PDF") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.getContentType());
+        String fileName = "bills_" + System.currentTimeMillis() + "." + format.getExtension();
+        response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+        orderExportService.exportBillOrders(parseTimestamp(startDate), parseTimestamp(endDate), status, format,
+                response.getOutputStream());
+    }
+
     @GetMapping("/filter")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> filterOrders(
@@ -193,7 +220,9 @@ public class OrdersController {
             @RequestParam(name = "endDate", required = false) String endDate,
             @RequestParam(name = "status", required = false) OrderStatus status,
             @RequestParam(name = "page", required = false) Integer page,
-            @RequestParam(name = "perPage", required = false) Integer perPage
+            @RequestParam(name = "perPage", required = false) Integer perPage,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
     ) {
         Timestamp start = parseTimestamp(startDate);
         Timestamp end = parseTimestamp(endDate);
@@ -201,6 +230,10 @@ public class OrdersController {
         if (start != null && end == null) {
             end = new Timestamp(System.currentTimeMillis());
         }
+        if (cursor != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(
+                    orderService.getAllByFilter(start, end, status, cursor, perPage, withTotal));
+        }
         return ResponseEntity.status(HttpStatus.OK).body(
                 orderService.getAllByFilter(start, end, status, page, perPage));
     }
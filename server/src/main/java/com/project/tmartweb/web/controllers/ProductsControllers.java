@@ -4,6 +4,7 @@ import com.project.tmartweb.application.services.image.IImageProductService;
 import com.project.tmartweb.application.services.product.IProductService;
 import com.project.tmartweb.domain.dtos.ProductDTO;
 import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.enums.SearchMode;
 import com.project.tmartweb.web.base.RestAPI;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,8 +27,13 @@ public class ProductsControllers {
     @GetMapping("")
     public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer perPage
+            @RequestParam(required = false) Integer perPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(iProductService.getAll(cursor, perPage, withTotal));
+        }
         return ResponseEntity.ok(iProductService.getAll(page, perPage));
     }
 
@@ -37,9 +43,10 @@ public class ProductsControllers {
             @RequestParam(name = "page") int page,
             @RequestParam(name = "perPage") int perPage,
             @RequestParam(name = "feedback", defaultValue = "asc") String feedback,
-            @RequestParam(name = "price", defaultValue = "asc") String price
+            @RequestParam(name = "price", defaultValue = "asc") String price,
+            @RequestParam(name = "mode", defaultValue = "LIKE") SearchMode mode
     ) {
-        var res = iProductService.getAllBySearch(keyword, feedback, price, page, perPage);
+        var res = iProductService.getAllBySearch(keyword, feedback, price, mode, page, perPage);
         return ResponseEntity.ok(res);
     }
 
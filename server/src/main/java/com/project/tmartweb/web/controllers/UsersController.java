@@ -1,5 +1,6 @@
 package com.project.tmartweb.web.controllers;
 
+import com.project.tmartweb.application.constant.SecurityConstant;
 import com.project.tmartweb.application.services.user.IUserService;
 import com.project.tmartweb.config.helpers.GenerateValue;
 import com.project.tmartweb.domain.dtos.UserChangePassword;
@@ -52,6 +53,19 @@ public class UsersController {
         return ResponseEntity.status(200).body(token);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(SecurityConstant.HEADER_AUTHORIZATION) String authHeader) {
+        userService.logout(authHeader.substring(SecurityConstant.TOKEN_PREFIX.length()));
+        return ResponseEntity.status(HttpStatus.OK).body("Logout successfully");
+    }
+
+    @PostMapping("/{id}/logout")
+    @RoleAdmin
+    public ResponseEntity<?> logoutAll(@PathVariable UUID id) {
+        userService.logoutAll(id);
+        return ResponseEntity.status(HttpStatus.OK).body("Logout successfully");
+    }
+
     @GetMapping("")
     @RoleAdmin
     public ResponseEntity<?> getAll(
@@ -0,0 +1,67 @@
+package com.project.tmartweb.application.services.coupon;
+
+import com.project.tmartweb.application.repositories.CouponRepository;
+import com.project.tmartweb.config.exceptions.InvalidParamException;
+import com.project.tmartweb.domain.entities.Coupon;
+import com.project.tmartweb.support.ConcurrentRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CouponServiceTests {
+	private static final int BUYERS = 64;
+	private static final int USES = 10;
+
+	@Autowired
+	private ICouponService couponService;
+
+	@Autowired
+	private CouponRepository couponRepository;
+
+	private String code;
+
+	@BeforeEach
+	void setUp() {
+		code = "TEST" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+		Coupon coupon = new Coupon();
+		coupon.setCode(code);
+		coupon.setDiscount(10);
+		coupon.setQuantity(USES);
+		coupon.setExpirationDate(new Timestamp(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+		couponRepository.save(coupon);
+	}
+
+	@AfterEach
+	void tearDown() {
+		couponRepository.deleteById(code);
+	}
+
+	@Test
+	void concurrentRedemptionsNeverExceedQuantity() throws Exception {
+		int redeemed = ConcurrentRunner.countSucceeded(BUYERS, InvalidParamException.class,
+				buyer -> couponService.redeemCoupon(code));
+
+		assertEquals(USES, redeemed);
+		assertEquals(0, couponRepository.findById(code).orElseThrow().getQuantity());
+	}
+
+	@Test
+	void expiredCouponIsNotRedeemed() {
+		Coupon coupon = couponRepository.findById(code).orElseThrow();
+		coupon.setExpirationDate(new Timestamp(System.currentTimeMillis() - 1000));
+		couponRepository.save(coupon);
+
+		assertThrows(InvalidParamException.class, () -> couponService.redeemCoupon(code));
+		assertEquals(USES, couponRepository.findById(code).orElseThrow().getQuantity());
+	}
+}
@@ -0,0 +1,92 @@
+package com.project.tmartweb.application.services.email;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.project.tmartweb.application.responses.BatchMailResponse;
+import com.project.tmartweb.config.mail.MailTemplateResolveConfig;
+import com.project.tmartweb.domain.dtos.MailRecipientDTO;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailServiceTests {
+	private static final int RECIPIENTS = 250;
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withUser("shop@localhost", "secret"));
+
+	private EmailService emailService;
+
+	@BeforeEach
+	void setUp() {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(3025);
+		mailSender.setUsername("shop@localhost");
+		mailSender.setPassword("secret");
+		mailSender.getJavaMailProperties().put("mail.smtp.auth", "true");
+
+		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(new MailTemplateResolveConfig().mailTemplateResolver());
+
+		emailService = new EmailService(mailSender, templateEngine);
+		ReflectionTestUtils.setField(emailService, "username", "shop@localhost");
+		ReflectionTestUtils.setField(emailService, "batchSize", 100);
+	}
+
+	@Test
+	void sendBatchTemplateMailDeliversEveryRecipient() throws Exception {
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("SHIPPED_DATE", "01/01/2024");
+		variables.put("ORDER_ITEMS", List.of());
+		variables.put("ORDER_TOTAL_NOT_DISCOUNT", "0");
+		variables.put("ORDER_TOTAL", "0");
+
+		List<MailRecipientDTO> recipients = new ArrayList<>();
+		for (int i = 0; i < RECIPIENTS; i++) {
+			recipients.add(new MailRecipientDTO("customer" + i + "@localhost", Map.of("CUSTOMER_NAME", "Khách " + i)));
+		}
+
+		BatchMailResponse response = emailService.sendBatchTemplateMail("Đơn hàng đã giao", "shipped", variables,
+				recipients);
+
+		assertEquals(RECIPIENTS, response.getSent());
+		assertTrue(response.getFailed().isEmpty());
+		assertTrue(greenMail.waitForIncomingEmail(RECIPIENTS));
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertEquals(RECIPIENTS, received.length);
+		for (MimeMessage message : received) {
+			if ("customer7@localhost".equals(message.getAllRecipients()[0].toString())) {
+				assertTrue(message.getContent().toString().contains("Khách 7"));
+			}
+		}
+	}
+
+	@Test
+	void sendBatchTemplateMailReportsInvalidRecipients() {
+		List<MailRecipientDTO> recipients = List.of(
+				new MailRecipientDTO("ok@localhost", Map.of("CUSTOMER_NAME", "A")),
+				new MailRecipientDTO("not an address", Map.of("CUSTOMER_NAME", "B")));
+		Map<String, Object> variables = Map.of("SHIPPED_DATE", "01/01/2024", "ORDER_ITEMS", List.of(),
+				"ORDER_TOTAL_NOT_DISCOUNT", "0", "ORDER_TOTAL", "0");
+
+		BatchMailResponse response = emailService.sendBatchTemplateMail("Test", "shipped", variables, recipients);
+
+		assertEquals(1, response.getSent());
+		assertEquals(List.of("not an address"), response.getFailed());
+	}
+}
@@ -0,0 +1,112 @@
+package com.project.tmartweb.application.services.email;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.project.tmartweb.application.repositories.MailOutboxRepository;
+import com.project.tmartweb.application.repositories.OrderRepository;
+import com.project.tmartweb.application.repositories.UserRepository;
+import com.project.tmartweb.domain.entities.MailOutbox;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.entities.User;
+import com.project.tmartweb.domain.enums.MailOutboxStatus;
+import com.project.tmartweb.domain.enums.MailType;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// GreenMail đóng vai SMTP server cục bộ
+@SpringBootTest(properties = {
+		"mail.host=localhost",
+		"mail.port=3025",
+		"mail.username=shop@localhost",
+		"mail.password=secret",
+		"mail.outbox.poll-interval=3600000",
+		"mail.outbox.rate-per-second=1000"
+})
+class MailOutboxDispatcherTests {
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withUser("shop@localhost", "secret"));
+
+	@Autowired
+	private MailOutboxService mailOutboxService;
+
+	@Autowired
+	private MailOutboxDispatcher mailOutboxDispatcher;
+
+	@Autowired
+	private MailOutboxRepository mailOutboxRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void duplicateEventsAreSentOnce() throws Exception {
+		Order order = createOrder();
+		transactionTemplate.executeWithoutResult(status -> {
+			mailOutboxService.enqueue(MailType.ORDER_SHIPPED, order.getId());
+			mailOutboxService.enqueue(MailType.ORDER_SHIPPED, order.getId());
+		});
+
+		mailOutboxDispatcher.dispatch();
+
+		MimeMessage[] messages = greenMail.getReceivedMessages();
+		assertEquals(1, messages.length);
+		assertEquals(order.getUser().getEmail(), messages[0].getAllRecipients()[0].toString());
+		List<MailOutbox> mails = mailOutboxRepository.findAll().stream()
+				.filter(mail -> mail.getOrderId().equals(order.getId()))
+				.toList();
+		assertEquals(1, mails.size());
+		assertEquals(MailOutboxStatus.SENT, mails.get(0).getStatus());
+	}
+
+	@Test
+	void failedSendIsRetriedLater() {
+		greenMail.stop();
+		Order order = createOrder();
+		transactionTemplate.executeWithoutResult(
+				status -> mailOutboxService.enqueue(MailType.ORDER_CREATED, order.getId()));
+
+		mailOutboxDispatcher.dispatch();
+
+		MailOutbox mail = mailOutboxRepository.findAll().stream()
+				.filter(item -> item.getOrderId().equals(order.getId()))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(MailOutboxStatus.PENDING, mail.getStatus());
+		assertEquals(1, mail.getAttempts());
+	}
+
+	private Order createOrder() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		User user = new User();
+		user.setUserName("mail-" + suffix);
+		user.setFullName("Mail Test");
+		user.setEmail("customer-" + suffix + "@localhost");
+		user = userRepository.save(user);
+
+		Order order = new Order();
+		order.setUser(user);
+		order.setFullName("Mail Test");
+		order.setStatus(OrderStatus.SHIPPED);
+		order.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+		return orderRepository.save(order);
+	}
+}
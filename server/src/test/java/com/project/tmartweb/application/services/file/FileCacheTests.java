@@ -0,0 +1,164 @@
+package com.project.tmartweb.application.services.file;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.project.tmartweb.config.exceptions.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FileCacheTests {
+	@TempDir
+	Path directory;
+
+	private AmazonS3 amazonS3;
+	private FileCache fileCache;
+	private FileDownloadService fileDownloadService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.getObject(eq("bucket"), anyString())).thenAnswer(invocation -> {
+			String key = invocation.getArgument(1);
+			if (key.startsWith("missing")) {
+				AmazonS3Exception exception = new AmazonS3Exception("Not Found");
+				exception.setStatusCode(404);
+				throw exception;
+			}
+			byte[] content = content(key);
+			S3Object object = new S3Object();
+			ObjectMetadata metadata = new ObjectMetadata();
+			metadata.setContentLength(content.length);
+			metadata.setContentType("image/png");
+			metadata.setHeader("ETag", "etag-" + key);
+			object.setObjectMetadata(metadata);
+			object.setObjectContent(new ByteArrayInputStream(content));
+			return object;
+		});
+		fileCache = new FileCache(amazonS3, new SimpleMeterRegistry(), "bucket", directory.resolve("cache"),
+				DataSize.ofBytes(250), 0);
+		fileDownloadService = new FileDownloadService(fileCache);
+	}
+
+	private static byte[] content(String key) {
+		byte[] content = new byte[100];
+		Arrays.fill(content, (byte) key.charAt(0));
+		return content;
+	}
+
+	@Test
+	void getDownloadsOnceAndCountsHits() throws Exception {
+		FileCache.CachedFile first = fileCache.get("a.png");
+		FileCache.CachedFile second = fileCache.get("a.png");
+
+		assertSame(first, second);
+		assertArrayEquals(content("a.png"), Files.readAllBytes(first.getPath()));
+		assertEquals("\"etag-a.png\"", first.getETag());
+		verify(amazonS3, times(1)).getObject("bucket", "a.png");
+		assertEquals(0.5, fileCache.hitRatio());
+	}
+
+	@Test
+	void getEvictsLeastRecentlyUsedFiles() {
+		FileCache.CachedFile a = fileCache.get("a.png");
+		FileCache.CachedFile b = fileCache.get("b.png");
+		fileCache.get("a.png");
+		fileCache.get("c.png");
+
+		assertEquals(200, fileCache.size());
+		releaseAll(a, b);
+		fileCache.purge();
+		assertTrue(Files.exists(a.getPath()));
+		assertFalse(Files.exists(b.getPath()));
+		fileCache.get("b.png");
+		verify(amazonS3, times(2)).getObject("bucket", "b.png");
+	}
+
+	@Test
+	void evictedFileIsKeptWhileBeingRead() {
+		FileCache.CachedFile first = fileCache.get("a.png");
+		fileCache.evict("a.png");
+		FileCache.CachedFile reloaded = fileCache.get("a.png");
+
+		assertNotEquals(first.getPath(), reloaded.getPath());
+		fileCache.purge();
+		assertTrue(Files.exists(first.getPath()));
+
+		fileCache.release(first);
+		fileCache.purge();
+		assertFalse(Files.exists(first.getPath()));
+		assertTrue(Files.exists(reloaded.getPath()));
+	}
+
+	@Test
+	void startupDeletesOnlyCacheFiles() throws Exception {
+		Path cacheDirectory = directory.resolve("cache");
+		Path leftover = fileCache.get("a.png").getPath();
+		Path unrelated = Files.writeString(cacheDirectory.resolve("notes.txt"), "keep");
+
+		new FileCache(amazonS3, new SimpleMeterRegistry(), "bucket", cacheDirectory, DataSize.ofBytes(250), 0);
+
+		assertFalse(Files.exists(leftover));
+		assertTrue(Files.exists(unrelated));
+	}
+
+	@Test
+	void getMissingFileThrowsNotFound() {
+		assertThrows(NotFoundException.class, () -> fileCache.get("missing.png"));
+	}
+
+	@Test
+	void serveReturnsRangeAndNotModified() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.png");
+		request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		fileDownloadService.serve("a.png", request, response);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 10-19/100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(10, response.getContentAsByteArray().length);
+		assertEquals("\"etag-a.png\"", response.getHeader(HttpHeaders.ETAG));
+
+		MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/files/a.png");
+		conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"etag-a.png\"");
+		MockHttpServletResponse notModified = new MockHttpServletResponse();
+		fileDownloadService.serve("a.png", conditional, notModified);
+
+		assertEquals(304, notModified.getStatus());
+		assertEquals(0, notModified.getContentAsByteArray().length);
+	}
+
+	@Test
+	void serveRejectsUnsatisfiableRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.png");
+		request.addHeader(HttpHeaders.RANGE, "bytes=500-");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		fileDownloadService.serve("a.png", request, response);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	private void releaseAll(FileCache.CachedFile... files) {
+		for (FileCache.CachedFile file : files) {
+			fileCache.release(file);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.project.tmartweb.application.services.file;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// AmazonS3 được giả lập, TransferManager là thật nên kiểm tra được cách stream và giới hạn song song
+class FileServiceTests {
+	private static final int CONCURRENCY = 3;
+
+	private AmazonS3 amazonS3;
+	private TransferManager transferManager;
+	private FileService fileService;
+
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger maxRunning = new AtomicInteger();
+	private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		amazonS3 = mock(AmazonS3.class);
+		when(amazonS3.putObject(any(PutObjectRequest.class))).thenAnswer(invocation -> {
+			PutObjectRequest request = invocation.getArgument(0);
+			int now = running.incrementAndGet();
+			maxRunning.accumulateAndGet(now, Math::max);
+			try {
+				assertNull(request.getFile());
+				assertEquals(request.getMetadata().getContentLength(), request.getInputStream().available());
+				stored.put(request.getKey(), request.getInputStream().readAllBytes());
+				Thread.sleep(50);
+			} finally {
+				running.decrementAndGet();
+			}
+			return new PutObjectResult();
+		});
+		when(amazonS3.getUrl(eq("bucket"), anyString())).thenAnswer(invocation ->
+				new URL("http://localhost:9000/bucket/" + invocation.getArgument(1)));
+
+		transferManager = TransferManagerBuilder.standard()
+				.withS3Client(amazonS3)
+				.withExecutorFactory(() -> Executors.newFixedThreadPool(CONCURRENCY))
+				.build();
+		fileService = new FileService(amazonS3, transferManager, mock(FileCache.class));
+		ReflectionTestUtils.setField(fileService, "bucketName", "bucket");
+	}
+
+	@AfterEach
+	void tearDown() {
+		transferManager.shutdownNow(false);
+	}
+
+	@Test
+	void uploadFilesStreamsInParallelWithBoundedConcurrency() {
+		List<MultipartFile> files = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			files.add(new MockMultipartFile("files", "../ảnh " + i + ".png", "image/png", new byte[1024 + i]));
+		}
+
+		List<String> urls = fileService.uploadFiles(files);
+
+		assertEquals(10, urls.size());
+		assertEquals(10, stored.size());
+		assertTrue(maxRunning.get() > 1);
+		assertTrue(maxRunning.get() <= CONCURRENCY);
+		for (int i = 0; i < urls.size(); i++) {
+			String key = urls.get(i).substring(urls.get(i).lastIndexOf('/') + 1);
+			assertTrue(key.endsWith("-_nh_" + i + ".png"), key);
+			assertEquals(1024 + i, stored.get(key).length);
+		}
+	}
+
+	@Test
+	void uploadFilesDeletesUploadedFilesWhenOneFails() {
+		when(amazonS3.putObject(argThat((PutObjectRequest request) -> request.getKey().endsWith("bad.png"))))
+				.thenThrow(new AmazonServiceException("boom"));
+		List<MultipartFile> files = List.of(
+				new MockMultipartFile("files", "good.png", "image/png", new byte[16]),
+				new MockMultipartFile("files", "bad.png", "image/png", new byte[16]));
+
+		assertThrows(RuntimeException.class, () -> fileService.uploadFiles(files));
+		verify(amazonS3, times(2)).deleteObject(eq("bucket"), anyString());
+	}
+}
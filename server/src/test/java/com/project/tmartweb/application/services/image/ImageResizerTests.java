@@ -0,0 +1,47 @@
+package com.project.tmartweb.application.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageResizerTests {
+	private final ImageResizer imageResizer = new ImageResizer();
+
+	@Test
+	void resizeKeepsAspectRatio() throws IOException {
+		BufferedImage source = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+
+		byte[] content = imageResizer.resize(source, 200, ImageResizer.JPEG);
+		BufferedImage thumbnail = imageResizer.read(content);
+
+		assertEquals(200, thumbnail.getWidth());
+		assertEquals(150, thumbnail.getHeight());
+	}
+
+	@Test
+	void resizePngKeepsTransparency() throws IOException {
+		BufferedImage source = new BufferedImage(800, 800, BufferedImage.TYPE_INT_ARGB);
+
+		BufferedImage thumbnail = imageResizer.read(imageResizer.resize(source, 200, ImageResizer.PNG));
+
+		assertEquals(200, thumbnail.getWidth());
+		assertTrue(thumbnail.getColorModel().hasAlpha());
+		assertEquals(0, thumbnail.getRGB(100, 100) >>> 24);
+	}
+
+	@Test
+	void formatOfKeepsPngOnly() {
+		assertEquals(ImageResizer.PNG, imageResizer.formatOf("1-abc-logo.PNG"));
+		assertEquals(ImageResizer.JPEG, imageResizer.formatOf("1-abc-photo.webp"));
+	}
+
+	@Test
+	void readRejectsNonImage() {
+		assertThrows(IOException.class, () -> imageResizer.read("not an image".getBytes()));
+	}
+}
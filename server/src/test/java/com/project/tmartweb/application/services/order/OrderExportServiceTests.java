@@ -0,0 +1,129 @@
+package com.project.tmartweb.application.services.order;
+
+import com.project.tmartweb.application.repositories.OrderDetailRepository;
+import com.project.tmartweb.application.repositories.OrderRepository;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.entities.OrderDetail;
+import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.enums.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Repository được giả lập, InvoiceRenderer thật để đo thời gian vẽ một hóa đơn
+class OrderExportServiceTests {
+	private static final int ORDERS = 150;
+
+	private final List<Order> orders = new ArrayList<>();
+	private InvoiceRenderer invoiceRenderer;
+	private EntityManager entityManager;
+	private OrderExportService orderExportService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < ORDERS; i++) {
+			Order order = new Order();
+			order.setId(UUID.randomUUID());
+			order.setCreatedAt(new Timestamp(now - i * 1000L));
+			order.setFullName("Nguyễn Văn " + i);
+			order.setPhoneNumber("0900000000");
+			order.setAddress("Hà Nội");
+			orders.add(order);
+		}
+
+		OrderRepository orderRepository = mock(OrderRepository.class);
+		when(orderRepository.findAllByFilterFirstPage(any(), any(), any(), any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					Pageable pageable = invocation.getArgument(3);
+					return orders.stream().limit(pageable.getPageSize()).toList();
+				});
+		when(orderRepository.findAllByFilterAfter(any(), any(), any(), any(), any(), any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					Timestamp cursorCreatedAt = invocation.getArgument(3);
+					Pageable pageable = invocation.getArgument(5);
+					return orders.stream()
+							.filter(order -> order.getCreatedAt().before(cursorCreatedAt))
+							.limit(pageable.getPageSize())
+							.toList();
+				});
+		OrderDetailRepository orderDetailRepository = mock(OrderDetailRepository.class);
+		when(orderDetailRepository.findAllWithProductByOrderIdIn(anyList())).thenAnswer(invocation -> {
+			List<UUID> orderIds = invocation.getArgument(0);
+			return orders.stream().filter(order -> orderIds.contains(order.getId())).map(this::detail).toList();
+		});
+		when(orderDetailRepository.findAllByOrderId(any(UUID.class))).thenReturn(List.of(detail(orders.get(0))));
+
+		invoiceRenderer = new InvoiceRenderer();
+		entityManager = mock(EntityManager.class);
+		orderExportService = new OrderExportService(orderRepository, orderDetailRepository, invoiceRenderer,
+				entityManager);
+	}
+
+	private OrderDetail detail(Order order) {
+		Product product = new Product();
+		product.setTitle("Áo thun");
+		OrderDetail orderDetail = new OrderDetail();
+		orderDetail.setOrder(order);
+		orderDetail.setProduct(product);
+		orderDetail.setClassify("M");
+		orderDetail.setQuantity(2);
+		orderDetail.setPrice(150000);
+		orderDetail.setTotalMoney(300000);
+		return orderDetail;
+	}
+
+	@Test
+	void exportZipWritesOneInvoicePerOrder() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		orderExportService.exportBillOrders(new Timestamp(0), new Timestamp(System.currentTimeMillis()), null,
+				ExportFormat.ZIP, outputStream);
+
+		int entries = 0;
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				byte[] content = zipInputStream.readAllBytes();
+				assertTrue(entry.getName().endsWith(".pdf"));
+				assertEquals("%PDF", new String(content, 0, 4, StandardCharsets.US_ASCII));
+				entries++;
+			}
+		}
+		assertEquals(ORDERS, entries);
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void exportPdfWritesAllInvoicesInOneDocument() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		orderExportService.exportBillOrders(new Timestamp(0), new Timestamp(System.currentTimeMillis()), null,
+				ExportFormat.PDF, outputStream);
+
+		byte[] content = outputStream.toByteArray();
+		assertEquals("%PDF", new String(content, 0, 4, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	void renderSingleInvoice() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		invoiceRenderer.render(orders.get(0), List.of(detail(orders.get(0))), outputStream);
+
+		byte[] content = outputStream.toByteArray();
+		assertEquals("%PDF", new String(content, 0, 4, StandardCharsets.US_ASCII));
+	}
+}
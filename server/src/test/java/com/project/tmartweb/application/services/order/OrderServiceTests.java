@@ -0,0 +1,113 @@
+package com.project.tmartweb.application.services.order;
+
+import com.project.tmartweb.application.repositories.CartRepository;
+import com.project.tmartweb.application.repositories.CategoryRepository;
+import com.project.tmartweb.application.repositories.ProductRepository;
+import com.project.tmartweb.application.repositories.UserRepository;
+import com.project.tmartweb.domain.dtos.CartDTO;
+import com.project.tmartweb.domain.dtos.OrderDTO;
+import com.project.tmartweb.domain.entities.Cart;
+import com.project.tmartweb.domain.entities.Category;
+import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrderServiceTests {
+	@Autowired
+	private IOrderService orderService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void checkoutStatementCountDoesNotGrowWithCartSize() {
+		long smallCart = checkoutStatements(1);
+		long largeCart = checkoutStatements(30);
+		assertEquals(smallCart, largeCart,
+				"Checkout of 30 lines ran " + largeCart + " statements, 1 line ran " + smallCart);
+	}
+
+	private long checkoutStatements(int lines) {
+		OrderDTO orderDTO = prepareCheckout(lines);
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics.clear();
+		orderService.insert(orderDTO);
+		entityManager.flush();
+		return statistics.getPrepareStatementCount();
+	}
+
+	private OrderDTO prepareCheckout(int lines) {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		User user = new User();
+		user.setUserName("checkout-" + suffix);
+		user.setFullName("Checkout Test");
+		user = userRepository.save(user);
+
+		Category category = new Category();
+		category.setName("Checkout " + suffix);
+		category = categoryRepository.save(category);
+
+		List<CartDTO> cartItems = new ArrayList<>();
+		for (int i = 0; i < lines; i++) {
+			Product product = new Product();
+			product.setId("T" + suffix + i);
+			product.setTitle("Checkout product " + suffix + " " + i);
+			product.setSalePrice(1000);
+			product.setQuantity(10);
+			product.setCategory(category);
+			product = productRepository.save(product);
+
+			Cart cart = new Cart();
+			cart.setUser(user);
+			cart.setProduct(product);
+			cart.setQuantity(2);
+			cart = cartRepository.save(cart);
+
+			cartItems.add(new CartDTO(cart.getId(), 2, user.getId(), product.getId(), null));
+		}
+
+		OrderDTO orderDTO = new OrderDTO();
+		orderDTO.setFullName("Checkout Test");
+		orderDTO.setPhoneNumber("0900000000");
+		orderDTO.setUserId(user.getId());
+		orderDTO.setPaymentMethod("COD");
+		orderDTO.setCartItems(cartItems);
+		return orderDTO;
+	}
+}
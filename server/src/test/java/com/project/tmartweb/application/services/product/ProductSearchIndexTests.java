@@ -0,0 +1,66 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.repositories.ProductRepository;
+import com.project.tmartweb.domain.entities.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex(Mockito.mock(ProductRepository.class));
+		index.index(product("P1", "Điện thoại Samsung Galaxy", "Màn hình lớn"));
+		index.index(product("P2", "Ốp lưng điện thoại", "Phụ kiện cho Samsung"));
+		index.index(product("P3", "Tai nghe Bluetooth", "Âm thanh sống động"));
+	}
+
+	@Test
+	void searchIgnoresDiacriticsAndCase() {
+		assertEquals(List.of("P1", "P2"), index.search("DIEN THOAI"));
+		assertEquals(List.of("P3"), index.search("âm thanh"));
+	}
+
+	@Test
+	void searchMatchesPrefixes() {
+		assertEquals(List.of("P3"), index.search("blue"));
+		assertEquals(List.of("P1", "P2"), index.search("sam"));
+	}
+
+	@Test
+	void titleMatchesRankAboveDescriptionMatches() {
+		assertEquals(List.of("P1", "P2"), index.search("samsung"));
+	}
+
+	@Test
+	void searchRequiresEveryKeyword() {
+		assertEquals(List.of("P1"), index.search("dien thoai galaxy"));
+		assertTrue(index.search("tai nghe samsung").isEmpty());
+	}
+
+	@Test
+	void deletedAndUpdatedProductsLeaveTheIndex() {
+		Product updated = product("P1", "Máy tính bảng", "");
+		index.index(updated);
+		assertEquals(List.of("P2"), index.search("dien thoai"));
+
+		index.remove("P2");
+		assertTrue(index.search("dien thoai").isEmpty());
+	}
+
+	private static Product product(String id, String title, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setTitle(title);
+		product.setDescription(description);
+		product.setDeleted(false);
+		return product;
+	}
+}
@@ -0,0 +1,70 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.repositories.CategoryRepository;
+import com.project.tmartweb.domain.entities.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductServiceTests {
+	// page query + count query, sold quantity is read from the products row
+	private static final long MAX_QUERIES_PER_PAGE = 2;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void listingsRunConstantQueriesPerPage() {
+		UUID categoryId = categoryRepository.findAll().stream()
+				.findFirst()
+				.map(Category::getId)
+				.orElseGet(UUID::randomUUID);
+		for (int perPage : new int[]{1, 10, 50}) {
+			assertConstant(() -> productService.getAll(0, perPage));
+			assertConstant(() -> productService.getAllProductsByCategory(categoryId, 0, perPage));
+			assertConstant(() -> productService.getAllDeleted(0, perPage));
+			assertConstant(() -> productService.getAllByDiscount(0, perPage));
+			assertConstant(() -> productService.getAllBySoldQuantity(0, perPage));
+			assertConstant(() -> productService.getAllByFilter(
+					null, null, null, null, null, null, false, 0, perPage));
+		}
+	}
+
+	@Test
+	void listingWithoutPaginationRunsOneQuery() {
+		statistics.clear();
+		productService.getAll(null, null);
+		assertTrue(statistics.getQueryExecutionCount() <= 1,
+				"Expected at most 1 query but was " + statistics.getQueryExecutionCount());
+	}
+
+	private void assertConstant(Runnable listing) {
+		statistics.clear();
+		listing.run();
+		long queries = statistics.getQueryExecutionCount();
+		assertTrue(queries <= MAX_QUERIES_PER_PAGE,
+				"Expected at most " + MAX_QUERIES_PER_PAGE + " queries per page but was " + queries);
+	}
+}
@@ -0,0 +1,88 @@
+package com.project.tmartweb.application.services.product;
+
+import com.project.tmartweb.application.repositories.ProductRepository;
+import com.project.tmartweb.config.exceptions.InvalidParamException;
+import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import com.project.tmartweb.support.ConcurrentRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockServiceTests {
+	private static final int BUYERS = 64;
+	private static final int STOCK = 10;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private String productId;
+
+	@BeforeEach
+	void setUp() {
+		productId = "S" + UUID.randomUUID().toString().substring(0, 8);
+		Product product = new Product();
+		product.setId(productId);
+		product.setTitle("Stock test " + productId);
+		product.setQuantity(STOCK);
+		productRepository.save(product);
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteById(productId);
+	}
+
+	@Test
+	void concurrentBuyersNeverOversell() throws Exception {
+		int sold = ConcurrentRunner.countSucceeded(BUYERS, InvalidParamException.class,
+				buyer -> stockService.reserve(Map.of(productId, 1)));
+
+		assertEquals(STOCK, sold);
+		assertEquals(0, productRepository.findById(productId).orElseThrow().getQuantity());
+	}
+
+	@Test
+	void releaseGivesStockBack() {
+		stockService.reserve(Map.of(productId, STOCK));
+		assertThrows(InvalidParamException.class, () -> stockService.reserve(Map.of(productId, 1)));
+
+		stockService.release(Map.of(productId, 3));
+		assertEquals(3, productRepository.findById(productId).orElseThrow().getQuantity());
+	}
+
+	// Hủy -> mở lại -> hủy: hàng chỉ được hoàn trả lại đúng số đã giữ
+	@Test
+	void reopeningCancelledOrderReservesStockAgain() {
+		Map<String, Integer> order = Map.of(productId, 4);
+		stockService.reserve(order);
+
+		stockService.applyTransition(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+		assertEquals(STOCK, productRepository.findById(productId).orElseThrow().getQuantity());
+		stockService.applyTransition(order, OrderStatus.CANCELLED, OrderStatus.CANCELLED);
+		assertEquals(STOCK, productRepository.findById(productId).orElseThrow().getQuantity());
+
+		stockService.applyTransition(order, OrderStatus.CANCELLED, OrderStatus.PENDING);
+		assertEquals(STOCK - 4, productRepository.findById(productId).orElseThrow().getQuantity());
+		stockService.applyTransition(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+		assertEquals(STOCK, productRepository.findById(productId).orElseThrow().getQuantity());
+
+		// Trong lúc đơn bị hủy, hàng đã bán cho người khác thì không mở lại được
+		stockService.reserve(Map.of(productId, STOCK - 2));
+		assertThrows(InvalidParamException.class,
+				() -> stockService.applyTransition(order, OrderStatus.CANCELLED, OrderStatus.PENDING));
+		assertEquals(2, productRepository.findById(productId).orElseThrow().getQuantity());
+	}
+}
@@ -0,0 +1,151 @@
+package com.project.tmartweb.application.services.statistics;
+
+import com.project.tmartweb.application.repositories.CategoryRepository;
+import com.project.tmartweb.application.repositories.OrderDetailRepository;
+import com.project.tmartweb.application.repositories.OrderRepository;
+import com.project.tmartweb.application.repositories.ProductRepository;
+import com.project.tmartweb.application.responses.CategorySalesStatistical;
+import com.project.tmartweb.application.responses.ProductSalesStatistical;
+import com.project.tmartweb.application.responses.RevenueByDate;
+import com.project.tmartweb.domain.entities.Category;
+import com.project.tmartweb.domain.entities.Order;
+import com.project.tmartweb.domain.entities.Product;
+import com.project.tmartweb.domain.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Một năm đơn hàng giả lập (năm 2001 để không lẫn với dữ liệu thật), so sánh truy vấn cũ với bảng cộng dồn
+@SpringBootTest
+@Transactional
+class RevenueRollupTests {
+	private static final int YEAR = 2001;
+	private static final int ORDERS_PER_DAY = 20;
+	private static final int PRODUCTS = 50;
+
+	@Autowired
+	private RevenueRollupService revenueRollupService;
+
+	@Autowired
+	private RevenueRollupJob revenueRollupJob;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderDetailRepository orderDetailRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Timestamp start = Timestamp.valueOf(LocalDate.of(YEAR, 1, 1).atStartOfDay());
+	private final Timestamp end = Timestamp.valueOf(LocalDate.of(YEAR, 12, 31).atTime(23, 59, 59));
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		List<String> productIds = new ArrayList<>();
+		for (int c = 0; c < 5; c++) {
+			Category category = new Category();
+			category.setName("Rollup " + suffix + " " + c);
+			category = categoryRepository.save(category);
+			for (int p = 0; p < PRODUCTS / 5; p++) {
+				Product product = new Product();
+				product.setId("R" + suffix + c + p);
+				product.setTitle("Rollup product " + suffix + " " + c + p);
+				product.setSalePrice(1000);
+				product.setCategory(category);
+				productIds.add(productRepository.save(product).getId());
+			}
+		}
+		productRepository.flush();
+
+		Random random = new Random(42);
+		List<Object[]> orders = new ArrayList<>();
+		List<Object[]> orderDetails = new ArrayList<>();
+		for (LocalDate day = LocalDate.of(YEAR, 1, 1); day.getYear() == YEAR; day = day.plusDays(1)) {
+			for (int i = 0; i < ORDERS_PER_DAY; i++) {
+				UUID orderId = UUID.randomUUID();
+				Timestamp createdAt = Timestamp.valueOf(day.atTime(random.nextInt(24), random.nextInt(60)));
+				OrderStatus status = random.nextInt(4) == 0 ? OrderStatus.CANCELLED : OrderStatus.SHIPPED;
+				double total = 0;
+				for (int line = 0; line < 3; line++) {
+					int quantity = 1 + random.nextInt(3);
+					double price = 1000 * (1 + random.nextInt(100));
+					total += quantity * price;
+					orderDetails.add(new Object[]{UUID.randomUUID(), orderId,
+							productIds.get(random.nextInt(productIds.size())), price, quantity, quantity * price,
+							createdAt});
+				}
+				orders.add(new Object[]{orderId, "Rollup", "0900000000", status.name(), total, createdAt});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO orders (id, full_name, phone_number, status, total_money, " +
+				"is_feedback, created_at) VALUES (?, ?, ?, ?, ?, false, ?)", orders);
+		jdbcTemplate.batchUpdate("INSERT INTO order_detail (id, order_id, product_id, price, quantity, " +
+				"total_money, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", orderDetails);
+		revenueRollupJob.rebuild();
+	}
+
+	@Test
+	void rollupsMatchFullScan() {
+		List<RevenueByDate> scannedDays = orderRepository.statisticalByDay(start, end);
+		List<RevenueByDate> rolledDays = revenueRollupService.getDailyStats(start, end);
+		assertEquals(scannedDays.size(), rolledDays.size());
+		for (int i = 0; i < scannedDays.size(); i++) {
+			assertEquals(scannedDays.get(i).getDate().toLocalDate(), rolledDays.get(i).getDate().toLocalDate());
+			assertEquals(scannedDays.get(i).getTotalMoney(), rolledDays.get(i).getTotalMoney(), 0.01);
+		}
+
+		List<ProductSalesStatistical> scannedProducts = orderDetailRepository.statisticalByProduct(start, end);
+		List<ProductSalesStatistical> rolledProducts = revenueRollupService.getProductSalesStats(start, end);
+		assertEquals(scannedProducts.size(), rolledProducts.size());
+		assertEquals(scannedProducts.stream().mapToLong(ProductSalesStatistical::getTotalQuantitySold).sum(),
+				rolledProducts.stream().mapToLong(ProductSalesStatistical::getTotalQuantitySold).sum());
+
+		List<CategorySalesStatistical> scannedCategories = orderDetailRepository.statisticalByCategory(start, end);
+		List<CategorySalesStatistical> rolledCategories = revenueRollupService.getCategorySalesStats(start, end);
+		assertEquals(scannedCategories.size(), rolledCategories.size());
+	}
+
+	@Test
+	void transitionsUpdateRollups() {
+		UUID orderId = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE status = 'CANCELLED' " +
+				"AND created_at BETWEEN ? AND ? LIMIT 1", UUID.class, start, end);
+		Order order = orderRepository.findById(orderId).orElseThrow();
+		Timestamp createdAt = order.getCreatedAt();
+		double orderTotal = order.getTotalMoney();
+		double before = revenueOn(createdAt);
+
+		revenueRollupService.applyTransition(order, OrderStatus.CANCELLED, OrderStatus.SHIPPED);
+		assertEquals(before + orderTotal, revenueOn(createdAt), 0.01);
+
+		revenueRollupService.applyTransition(order, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+		assertEquals(before, revenueOn(createdAt), 0.01);
+	}
+
+	private double revenueOn(Timestamp createdAt) {
+		Timestamp day = Timestamp.valueOf(createdAt.toLocalDateTime().toLocalDate().atStartOfDay());
+		return revenueRollupService.getDailyStats(day, day).stream()
+				.mapToDouble(RevenueByDate::getTotalMoney)
+				.sum();
+	}
+}
@@ -0,0 +1,119 @@
+package com.project.tmartweb.application.services.statistics;
+
+import com.project.tmartweb.application.constant.CacheName;
+import com.project.tmartweb.application.repositories.DailyRevenueRepository;
+import com.project.tmartweb.application.responses.RevenueByWeek;
+import com.project.tmartweb.application.responses.RevenueSummary;
+import com.project.tmartweb.application.responses.Statistical;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevenueStatisticsServiceTests {
+	private DailyRevenueRepository dailyRevenueRepository;
+	private RevenueStatisticsService revenueStatisticsService;
+
+	@BeforeEach
+	void setUp() {
+		dailyRevenueRepository = mock(DailyRevenueRepository.class);
+		when(dailyRevenueRepository.summarize(any(), any())).thenReturn(new RevenueSummary(300.0, 3L));
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheName.REVENUE_PERIODS);
+		revenueStatisticsService = new RevenueStatisticsService(dailyRevenueRepository, cacheManager, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		revenueStatisticsService.shutdown();
+	}
+
+	@Test
+	void closedMonthsAreComputedOnce() {
+		int pastYear = LocalDate.now().getYear() - 2;
+
+		List<Statistical> first = revenueStatisticsService.monthly(pastYear);
+		List<Statistical> second = revenueStatisticsService.monthly(pastYear);
+
+		assertEquals(12, first.size());
+		for (int i = 0; i < 12; i++) {
+			assertEquals(i + 1, first.get(i).getMonth());
+			assertEquals(3L, first.get(i).getOrderCount());
+			assertEquals(100.0, first.get(i).getAverageBasket(), 0.001);
+			assertEquals(first.get(i).getTotalMoney(), second.get(i).getTotalMoney());
+		}
+		verify(dailyRevenueRepository, times(12)).summarize(any(), any());
+	}
+
+	@Test
+	void currentMonthIsRecomputed() {
+		LocalDate today = LocalDate.now();
+
+		revenueStatisticsService.monthly(today.getYear());
+		revenueStatisticsService.monthly(today.getYear());
+
+		// Tháng đã qua đọc một lần, tháng hiện tại đọc mỗi lần, tháng sau chưa đọc
+		int pastMonths = today.getMonthValue() - 1;
+		verify(dailyRevenueRepository, times(pastMonths + 2)).summarize(any(), any());
+		Statistical next = revenueStatisticsService.monthly(today.getYear()).get(11);
+		if (today.getMonthValue() < 12) {
+			assertEquals(0.0, next.getTotalMoney());
+			assertEquals(0.0, next.getAverageBasket());
+		}
+	}
+
+	@Test
+	void evictRecomputesMonthAndWeekOfDay() {
+		int pastYear = LocalDate.now().getYear() - 2;
+		LocalDate day = LocalDate.of(pastYear, 5, 15);
+		revenueStatisticsService.monthly(pastYear);
+		revenueStatisticsService.weekly(pastYear);
+		clearInvocations(dailyRevenueRepository);
+
+		revenueStatisticsService.evict(day);
+		revenueStatisticsService.monthly(pastYear);
+		revenueStatisticsService.weekly(pastYear);
+
+		verify(dailyRevenueRepository).summarize(LocalDate.of(pastYear, 5, 1), LocalDate.of(pastYear, 5, 31));
+		verify(dailyRevenueRepository, times(2)).summarize(any(), any());
+	}
+
+	// Số liệu đổi trong lúc đang đọc kỳ: kết quả cũ không được dùng lại dù đã vào cache
+	@Test
+	void resultReadBeforeUpdateIsNotReused() {
+		int pastYear = LocalDate.now().getYear() - 2;
+		LocalDate day = LocalDate.of(pastYear, 5, 15);
+		when(dailyRevenueRepository.summarize(LocalDate.of(pastYear, 5, 1), LocalDate.of(pastYear, 5, 31)))
+				.thenAnswer(invocation -> {
+					revenueStatisticsService.evict(day);
+					return new RevenueSummary(300.0, 3L);
+				})
+				.thenReturn(new RevenueSummary(400.0, 4L));
+
+		revenueStatisticsService.monthly(pastYear);
+		List<Statistical> months = revenueStatisticsService.monthly(pastYear);
+
+		assertEquals(4L, months.get(4).getOrderCount());
+		verify(dailyRevenueRepository, times(2))
+				.summarize(LocalDate.of(pastYear, 5, 1), LocalDate.of(pastYear, 5, 31));
+	}
+
+	@Test
+	void weeksFollowIsoCalendar() {
+		// 2020 có 53 tuần ISO, tuần 1 bắt đầu 30/12/2019
+		List<RevenueByWeek> weeks = revenueStatisticsService.weekly(2020);
+
+		assertEquals(53, weeks.size());
+		assertEquals(53, LocalDate.of(2020, 12, 31).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+		verify(dailyRevenueRepository).summarize(LocalDate.of(2019, 12, 30), LocalDate.of(2020, 1, 5));
+		verify(dailyRevenueRepository).summarize(LocalDate.of(2020, 12, 28), LocalDate.of(2021, 1, 3));
+		assertEquals(52, revenueStatisticsService.weekly(2021).size());
+	}
+}
@@ -0,0 +1,46 @@
+package com.project.tmartweb.application.services.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Đo tỉ lệ false positive và dung lượng với 1 triệu token bị thu hồi
+class BloomFilterTests {
+	private static final int TOKENS = 1_000_000;
+	private static final double FALSE_POSITIVE_RATE = 0.001;
+
+	private final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+	BloomFilterTests() throws Exception {
+	}
+
+	private String digest(String token) {
+		return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void falsePositiveRateAndMemoryAtOneMillionTokens() {
+		BloomFilter bloomFilter = new BloomFilter(TOKENS, FALSE_POSITIVE_RATE);
+		for (int i = 0; i < TOKENS; i++) {
+			bloomFilter.put(digest("revoked-" + i));
+		}
+
+		for (int i = 0; i < TOKENS; i += 1000) {
+			assertTrue(bloomFilter.mightContain(digest("revoked-" + i)));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < TOKENS; i++) {
+			if (bloomFilter.mightContain(digest("active-" + i))) {
+				falsePositives++;
+			}
+		}
+
+		double rate = (double) falsePositives / TOKENS;
+		assertTrue(rate < FALSE_POSITIVE_RATE * 2, "false positive rate " + rate);
+		assertTrue(bloomFilter.sizeInBytes() < 2 * 1024 * 1024);
+	}
+}
@@ -0,0 +1,114 @@
+package com.project.tmartweb.application.services.token;
+
+import com.project.tmartweb.application.repositories.TokenRepository;
+import com.project.tmartweb.application.responses.RevokedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTests {
+	private TokenRepository tokenRepository;
+	private TokenRevocationService tokenRevocationService;
+	private TokenRevocationJob tokenRevocationJob;
+
+	@BeforeEach
+	void setUp() {
+		tokenRepository = mock(TokenRepository.class);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		tokenRevocationService = new TokenRevocationService(meterRegistry, 1000, 0.001);
+		tokenRevocationJob = new TokenRevocationJob(tokenRepository, tokenRevocationService, meterRegistry);
+	}
+
+	private String digest(String token) throws Exception {
+		MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+		return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private Timestamp fromNow(long millis) {
+		return new Timestamp(System.currentTimeMillis() + millis);
+	}
+
+	@Test
+	void revokedTokenIsRejected() throws Exception {
+		String revoked = digest("revoked");
+
+		tokenRevocationService.revoke(revoked, fromNow(60_000));
+
+		assertTrue(tokenRevocationService.isRevoked(revoked));
+		assertFalse(tokenRevocationService.isRevoked(digest("active")));
+	}
+
+	@Test
+	void revokeAfterCommitWaitsForCommit() throws Exception {
+		String committed = digest("committed");
+		String rolledBack = digest("rolled-back");
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			tokenRevocationService.revokeAfterCommit(committed, fromNow(60_000));
+			assertFalse(tokenRevocationService.isRevoked(committed));
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertTrue(tokenRevocationService.isRevoked(committed));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			tokenRevocationService.revokeAfterCommit(rolledBack, fromNow(60_000));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertFalse(tokenRevocationService.isRevoked(rolledBack));
+	}
+
+	@Test
+	void expiredTokenIsNotKept() throws Exception {
+		tokenRevocationService.revoke(digest("expired"), fromNow(-1000));
+
+		assertEquals(0, tokenRevocationService.size());
+	}
+
+	@Test
+	void refreshReadsOnlyNewRevocations() throws Exception {
+		Timestamp revokedAt = new Timestamp(System.currentTimeMillis());
+		when(tokenRepository.findRevokedSince(any(), any()))
+				.thenReturn(List.of(new RevokedToken(digest("other-instance"), fromNow(60_000), revokedAt)))
+				.thenReturn(List.of());
+
+		tokenRevocationJob.refresh();
+		tokenRevocationJob.refresh();
+
+		assertTrue(tokenRevocationService.isRevoked(digest("other-instance")));
+		verify(tokenRepository).findRevokedSince(eq(new Timestamp(0)), any());
+		// Lần sau đọc từ revoked_at của dòng mới nhất, lùi lại một khoảng
+		verify(tokenRepository).findRevokedSince(eq(new Timestamp(revokedAt.getTime() - 60_000)), any());
+	}
+
+	@Test
+	void rebuildDropsExpiredAndKeepsLocalRevocations() throws Exception {
+		tokenRevocationService.revoke(digest("local"), fromNow(60_000));
+		when(tokenRepository.findRevokedSince(any(), any()))
+				.thenReturn(List.of(new RevokedToken(digest("stored"), fromNow(60_000), fromNow(0))));
+
+		tokenRevocationJob.rebuild();
+
+		verify(tokenRepository).deleteExpired(any());
+		assertTrue(tokenRevocationService.isRevoked(digest("local")));
+		assertTrue(tokenRevocationService.isRevoked(digest("stored")));
+		assertEquals(2, tokenRevocationService.size());
+	}
+}
@@ -0,0 +1,80 @@
+package com.project.tmartweb.application.services.user;
+
+import com.project.tmartweb.application.repositories.TokenRepository;
+import com.project.tmartweb.application.repositories.UserRepository;
+import com.project.tmartweb.application.responses.TokenResponse;
+import com.project.tmartweb.application.services.file.FileService;
+import com.project.tmartweb.application.services.role.RoleService;
+import com.project.tmartweb.application.services.token.ITokenService;
+import com.project.tmartweb.application.services.token.TokenRevocationService;
+import com.project.tmartweb.config.exceptions.NotFoundException;
+import com.project.tmartweb.config.security.CustomUserDetailService;
+import com.project.tmartweb.config.security.JwtTokenProvider;
+import com.project.tmartweb.config.security.PasswordHasher;
+import com.project.tmartweb.domain.dtos.UserLoginDTO;
+import com.project.tmartweb.domain.entities.Role;
+import com.project.tmartweb.domain.entities.User;
+import com.project.tmartweb.domain.enums.RoleId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserServiceTests {
+	private BCryptPasswordEncoder passwordEncoder;
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		passwordEncoder = spy(new BCryptPasswordEncoder(4));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		Role role = new Role();
+		role.setId(RoleId.USER);
+		User user = new User();
+		user.setId(UUID.randomUUID());
+		user.setUserName("havu");
+		user.setPassword(passwordEncoder.encode("secret"));
+		user.setRole(role);
+
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByUserName("havu")).thenReturn(Optional.of(user));
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(meterRegistry, 3600,
+				Base64.getEncoder().encodeToString(new byte[32]), 100);
+		PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, meterRegistry, 2, 8, 5000);
+		userService = new UserService(userRepository, new ModelMapper(), mock(RoleService.class), jwtTokenProvider,
+				passwordHasher, mock(ITokenService.class), mock(TokenRepository.class), mock(FileService.class),
+				mock(CustomUserDetailService.class), new TokenRevocationService(meterRegistry, 100, 0.01));
+		clearInvocations(passwordEncoder);
+	}
+
+	private UserLoginDTO login(String password) {
+		UserLoginDTO userLoginDTO = new UserLoginDTO();
+		userLoginDTO.setUserName("havu");
+		userLoginDTO.setPassword(password);
+		return userLoginDTO;
+	}
+
+	@Test
+	void loginVerifiesPasswordOnce() {
+		TokenResponse response = userService.Login(login("secret"));
+
+		assertNotNull(response.getToken());
+		verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+	}
+
+	@Test
+	void loginRejectsWrongPassword() {
+		assertThrows(NotFoundException.class, () -> userService.Login(login("wrong")));
+		verify(passwordEncoder, times(1)).matches(any(), any());
+	}
+}
@@ -0,0 +1,103 @@
+package com.project.tmartweb.config.security;
+
+import com.project.tmartweb.application.constant.CacheName;
+import com.project.tmartweb.application.repositories.UserRepository;
+import com.project.tmartweb.domain.entities.Role;
+import com.project.tmartweb.domain.entities.User;
+import com.project.tmartweb.domain.enums.RoleId;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailServiceTests {
+	private UserRepository userRepository;
+	private CustomUserDetailService userDetailService;
+	private JwtTokenProvider jwtTokenProvider;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		userDetailService = new CustomUserDetailService(userRepository,
+				new CaffeineCacheManager(CacheName.PRINCIPALS));
+		jwtTokenProvider = new JwtTokenProvider(new SimpleMeterRegistry(), 3600,
+				Base64.getEncoder().encodeToString(new byte[32]), 100);
+		user = user(RoleId.USER);
+		when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+	}
+
+	private User user(RoleId roleId) {
+		Role role = new Role();
+		role.setId(roleId);
+		User created = new User();
+		created.setId(UUID.randomUUID());
+		created.setUserName("havu");
+		created.setRole(role);
+		return created;
+	}
+
+	private Claims claims(User tokenUser) {
+		return jwtTokenProvider.extractAllClaims(jwtTokenProvider.generateToken(tokenUser));
+	}
+
+	@Test
+	void principalIsLoadedOncePerSubject() {
+		Claims claims = claims(user);
+
+		CustomUserDetails first = userDetailService.loadUserByClaims(claims);
+		CustomUserDetails second = userDetailService.loadUserByClaims(claims);
+
+		assertSame(first, second);
+		assertEquals("havu", second.getUsername());
+		verify(userRepository, times(1)).findById(user.getId());
+		verify(userRepository, never()).findByUserName(any());
+	}
+
+	@Test
+	void evictReloadsPrincipal() {
+		Claims claims = claims(user);
+		userDetailService.loadUserByClaims(claims);
+
+		userDetailService.evict("havu", user.getId());
+		userDetailService.loadUserByClaims(claims);
+
+		verify(userRepository, times(2)).findById(user.getId());
+	}
+
+	@Test
+	void deletedOrRenamedUserIsRejected() {
+		Claims claims = claims(user);
+
+		user.setDeleted(true);
+		assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByClaims(claims));
+
+		user.setDeleted(false);
+		user.setUserName("renamed");
+		assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByClaims(claims));
+	}
+
+	@Test
+	void authoritiesComeFromRoleClaim() {
+		String token = jwtTokenProvider.generateToken(user);
+		Claims claims = jwtTokenProvider.extractAllClaims(token);
+		CustomUserDetails userDetails = userDetailService.loadUserByClaims(claims);
+
+		assertEquals("ROLE_USER", jwtTokenProvider.extractAuthorities(claims).get(0).getAuthority());
+		assertTrue(jwtTokenProvider.validateToken(token, userDetails));
+
+		// Token cấp trước khi đổi quyền
+		user.getRole().setId(RoleId.ADMIN);
+		assertFalse(jwtTokenProvider.validateToken(token, userDetails));
+	}
+}
@@ -0,0 +1,75 @@
+package com.project.tmartweb.config.security;
+
+import com.project.tmartweb.domain.entities.Role;
+import com.project.tmartweb.domain.entities.User;
+import com.project.tmartweb.domain.enums.RoleId;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTests {
+	private static final String SECRET_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private SimpleMeterRegistry meterRegistry;
+	private JwtTokenProvider jwtTokenProvider;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		jwtTokenProvider = new JwtTokenProvider(meterRegistry, 3600, SECRET_KEY, 100);
+		Role role = new Role();
+		role.setId(RoleId.USER);
+		user = new User();
+		user.setId(UUID.randomUUID());
+		user.setUserName("havu");
+		user.setPassword("password");
+		user.setRole(role);
+	}
+
+	@Test
+	void verifiedTokenIsParsedOnce() {
+		String token = jwtTokenProvider.generateToken(user);
+		UserDetails userDetails = new CustomUserDetails(user);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals("havu", jwtTokenProvider.extractUsername(token));
+			assertTrue(jwtTokenProvider.validateToken(token, userDetails));
+		}
+
+		assertEquals(1, cacheGets("miss"));
+		assertEquals(9, cacheGets("hit"));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = jwtTokenProvider.generateToken(user);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+		assertThrows(SignatureException.class, () -> jwtTokenProvider.extractUsername(tampered));
+		assertFalse(jwtTokenProvider.validateToken(tampered, new CustomUserDetails(user)));
+		assertEquals("havu", jwtTokenProvider.extractUsername(token));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		JwtTokenProvider expiredProvider = new JwtTokenProvider(new SimpleMeterRegistry(), -60, SECRET_KEY, 100);
+		String token = expiredProvider.generateToken(user);
+
+		assertThrows(ExpiredJwtException.class, () -> jwtTokenProvider.extractUsername(token));
+		assertFalse(jwtTokenProvider.validateToken(token, new CustomUserDetails(user)));
+	}
+
+	private double cacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "jwt-claims").tag("result", result)
+				.functionCounter().count();
+	}
+}
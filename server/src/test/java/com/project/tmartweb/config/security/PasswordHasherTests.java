@@ -0,0 +1,67 @@
+package com.project.tmartweb.config.security;
+
+import com.project.tmartweb.config.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTests {
+	@Test
+	void encodeAndMatch() {
+		PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(),
+				2, 8, 5000);
+		String encoded = passwordHasher.encode("secret");
+
+		assertTrue(passwordHasher.matches("secret", encoded));
+		assertFalse(passwordHasher.matches("wrong", encoded));
+		passwordHasher.shutdown();
+	}
+
+	// Giả lập dò mật khẩu hàng loạt: 200 lần đăng nhập cùng lúc vào pool 2 thread, hàng đợi 16
+	@Test
+	void burstIsRejectedInsteadOfQueued() throws Exception {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+		String encoded = encoder.encode("secret");
+		PasswordHasher passwordHasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 2, 16, 5000);
+		int attempts = 200;
+		AtomicInteger rejected = new AtomicInteger();
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < attempts; i++) {
+				futures.add(clients.submit(() -> {
+					long begin = System.nanoTime();
+					try {
+						passwordHasher.matches("guess", encoded);
+						latencies.add(System.nanoTime() - begin);
+					} catch (TooManyRequestsException e) {
+						rejected.incrementAndGet();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		passwordHasher.shutdown();
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		double p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1e6;
+		assertEquals(attempts, sorted.size() + rejected.get());
+		assertTrue(rejected.get() > 0);
+		assertTrue(sorted.size() >= 18);
+		assertTrue(p99 < 5000);
+	}
+}
@@ -0,0 +1,67 @@
+package com.project.tmartweb.domain.entities;
+
+import com.project.tmartweb.support.ConcurrentRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Hai generator dùng chung database giả lập hai instance, cùng thêm sản phẩm song song
+@SpringBootTest
+class ProductIdGeneratorTests {
+	private static final int THREADS = 16;
+	private static final int INSERTS_PER_THREAD = 200;
+
+	@Autowired
+	private ProductIdGenerator productIdGenerator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${product.id.block-size}")
+	private int blockSize;
+
+	private final Set<String> inserted = ConcurrentHashMap.newKeySet();
+
+	@AfterEach
+	void tearDown() {
+		for (String id : inserted) {
+			jdbcTemplate.update("DELETE FROM products WHERE id = ?", id);
+		}
+	}
+
+	@Test
+	void concurrentInsertsGetUniqueIds() throws Exception {
+		ProductIdGenerator otherInstance = new ProductIdGenerator(jdbcTemplate, transactionManager, blockSize);
+		ConcurrentRunner.run(THREADS, writer -> {
+			ProductIdGenerator generator = writer % 2 == 0 ? productIdGenerator : otherInstance;
+			for (int j = 0; j < INSERTS_PER_THREAD; j++) {
+				String id = generator.generateNextId();
+				// Khóa chính trùng sẽ ném DuplicateKeyException
+				jdbcTemplate.update("INSERT INTO products(id, title) VALUES (?, ?)", id, "Id test " + id);
+				inserted.add(id);
+			}
+		});
+
+		assertEquals(THREADS * INSERTS_PER_THREAD, inserted.size());
+	}
+
+	@Test
+	void blockSizeMismatchFailsFast() {
+		ProductIdGenerator misconfigured = new ProductIdGenerator(jdbcTemplate, transactionManager, blockSize + 1);
+
+		assertThrows(IllegalStateException.class, misconfigured::generateNextId);
+	}
+}
@@ -0,0 +1,57 @@
+package com.project.tmartweb.domain.paginate;
+
+import com.project.tmartweb.config.exceptions.InvalidParamException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTests {
+	@Test
+	void encodeDecodeKeepsMicrosecondPrecision() {
+		Timestamp createdAt = Timestamp.from(Instant.parse("2024-05-01T10:15:30.123456Z"));
+		UUID id = UUID.randomUUID();
+
+		Cursor cursor = Cursor.decode(new Cursor(createdAt, id.toString()).encode());
+
+		assertEquals(createdAt, cursor.getCreatedAt());
+		assertEquals(id, cursor.getUuid());
+	}
+
+	@Test
+	void emptyCursorMeansFirstPage() {
+		assertNull(Cursor.decode(""));
+		assertNull(Cursor.decode(null));
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(InvalidParamException.class, () -> Cursor.decode("not-a-cursor"));
+		assertThrows(InvalidParamException.class, () -> new Cursor(new Timestamp(0), "abc").getUuid());
+	}
+
+	@Test
+	void paginateTrimsLookAheadRowAndPointsAtLastKeptRow() {
+		Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+		List<String> rows = List.of("c", "b", "a");
+
+		BasePagination<String, JpaRepository<String, Object>> pagination = new BasePagination<>();
+		PaginationDTO<String> page = pagination.paginate(rows, 2, row -> new Cursor(createdAt, row), null);
+
+		assertEquals(List.of("c", "b"), page.getData());
+		assertEquals("b", Cursor.decode(page.getPagination().getNextCursor()).getId());
+		assertNull(page.getPagination().getTotal());
+
+		PaginationDTO<String> last = pagination.paginate(List.of("a"), 2, row -> new Cursor(createdAt, row), 3L);
+
+		assertNull(last.getPagination().getNextCursor());
+		assertEquals(3L, last.getPagination().getTotal());
+	}
+}
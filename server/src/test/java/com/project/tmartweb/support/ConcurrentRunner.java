@@ -0,0 +1,59 @@
+package com.project.tmartweb.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Chạy cùng một việc trên nhiều thread bắt đầu cùng lúc, dùng cho các test tranh chấp dữ liệu
+public final class ConcurrentRunner {
+	private ConcurrentRunner() {
+	}
+
+	@FunctionalInterface
+	public interface Task {
+		void run(int thread) throws Exception;
+	}
+
+	// Exception của bất kỳ thread nào được ném lại cho test
+	public static void run(int threads, Task task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				int thread = i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					task.run(thread);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// Trả về số thread chạy thành công, các thread còn lại đã bị từ chối bằng exception kiểu rejection
+	public static int countSucceeded(int threads, Class<? extends Exception> rejection, Task task) throws Exception {
+		AtomicInteger succeeded = new AtomicInteger();
+		run(threads, thread -> {
+			try {
+				task.run(thread);
+				succeeded.incrementAndGet();
+			} catch (Exception e) {
+				if (!rejection.isInstance(e)) {
+					throw e;
+				}
+			}
+		});
+		return succeeded.get();
+	}
+}